@@ -0,0 +1,32 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.lang.reflect.Method;
+
+/**
+ * Turns an exception thrown while serving a sub-request into the response the module's controller advice would
+ * give for the same exception outside a batch.
+ */
+public class AdviceExceptionHandler {
+    private final Object advice;
+    private final ExceptionHandlerMethodResolver resolver;
+
+    public AdviceExceptionHandler(Object advice) {
+        this.advice = advice;
+        this.resolver = new ExceptionHandlerMethodResolver(ClassUtils.getUserClass(advice));
+    }
+
+    @Nullable
+    public ResponseEntity<?> handle(Exception e) {
+        Method handler = resolver.resolveMethodByThrowable(e);
+        if (handler == null) {
+            return null;
+        }
+        return (ResponseEntity<?>) ReflectionUtils.invokeMethod(handler, advice, e);
+    }
+}
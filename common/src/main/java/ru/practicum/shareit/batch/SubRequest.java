@@ -0,0 +1,40 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Map;
+
+/**
+ * A batched sub-request matched to the controller method that serves the same path on its own.
+ */
+public class SubRequest {
+    private final HandlerMethod handlerMethod;
+    private final String path;
+    private final Map<String, String> uriVariables;
+    private final MultiValueMap<String, String> queryParams;
+
+    SubRequest(HandlerMethod handlerMethod, String path, Map<String, String> uriVariables,
+               MultiValueMap<String, String> queryParams) {
+        this.handlerMethod = handlerMethod;
+        this.path = path;
+        this.uriVariables = uriVariables;
+        this.queryParams = queryParams;
+    }
+
+    public HandlerMethod getHandlerMethod() {
+        return handlerMethod;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    Map<String, String> getUriVariables() {
+        return uriVariables;
+    }
+
+    MultiValueMap<String, String> getQueryParams() {
+        return queryParams;
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ValueConstants;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Matches batched {@code GET} sub-requests to controller methods and resolves their path variables, query
+ * parameters and user header with the same conversion service the controllers get, so a sub-request is read exactly
+ * like the same request sent on its own.
+ */
+public class SubRequestResolver {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf(String.class);
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final ConversionService conversionService;
+
+    public SubRequestResolver(RequestMappingHandlerMapping handlerMapping, ConversionService conversionService) {
+        this.handlerMapping = handlerMapping;
+        this.conversionService = conversionService;
+    }
+
+    public SubRequest match(String method, String path) {
+        if (!HttpMethod.GET.matches(method)) {
+            throw new ResponseStatusException(HttpStatus.METHOD_NOT_ALLOWED,
+                    "Only GET requests can be batched, got: '" + method + "'");
+        }
+        UriComponents uri = UriComponentsBuilder.fromUriString(path).build();
+        PathContainer pathContainer = PathContainer.parsePath(String.valueOf(uri.getPath()));
+        HandlerMethod handlerMethod = null;
+        PathPattern bestPattern = null;
+        PathPattern.PathMatchInfo bestMatch = null;
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            PathPatternsRequestCondition patterns = entry.getKey().getPathPatternsCondition();
+            if (patterns == null || !entry.getKey().getMethodsCondition().getMethods().contains(RequestMethod.GET)) {
+                continue;
+            }
+            for (PathPattern pattern : patterns.getPatterns()) {
+                PathPattern.PathMatchInfo match = pattern.matchAndExtract(pathContainer);
+                if (match != null && (bestPattern == null
+                        || PathPattern.SPECIFICITY_COMPARATOR.compare(pattern, bestPattern) < 0)) {
+                    handlerMethod = entry.getValue();
+                    bestPattern = pattern;
+                    bestMatch = match;
+                }
+            }
+        }
+        if (handlerMethod == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No handler for GET '" + path + "'");
+        }
+        return new SubRequest(handlerMethod, uri.getPath(), bestMatch.getUriVariables(), uri.getQueryParams());
+    }
+
+    /**
+     * Converts the sub-request's parameters to the handler's argument types. A converter that rejects a value with
+     * its own exception, rather than an {@link IllegalArgumentException}, gets that exception rethrown so the caller
+     * reports it the way the controller advice does.
+     */
+    public Object[] resolveArguments(SubRequest request, long userId) {
+        MethodParameter[] parameters = request.getHandlerMethod().getMethodParameters();
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            MethodParameter parameter = parameters[i];
+            parameter.initParameterNameDiscovery(PARAMETER_NAMES);
+            PathVariable pathVariable = parameter.getParameterAnnotation(PathVariable.class);
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            RequestHeader requestHeader = parameter.getParameterAnnotation(RequestHeader.class);
+            String name;
+            String value;
+            boolean required = true;
+            if (pathVariable != null) {
+                name = name(pathVariable.name(), parameter);
+                value = request.getUriVariables().get(name);
+            } else if (requestParam != null) {
+                name = name(requestParam.name(), parameter);
+                String raw = request.getQueryParams().getFirst(name);
+                value = raw != null ? UriUtils.decode(raw, StandardCharsets.UTF_8) : null;
+                if (!StringUtils.hasLength(value) && !ValueConstants.DEFAULT_NONE.equals(requestParam.defaultValue())) {
+                    value = requestParam.defaultValue();
+                }
+                required = requestParam.required();
+            } else if (requestHeader != null && USER_HEADER.equalsIgnoreCase(name(requestHeader.name(), parameter))) {
+                name = USER_HEADER;
+                value = String.valueOf(userId);
+            } else if (requestHeader != null && !requestHeader.required()) {
+                // sub-requests carry no headers of their own, such as If-None-Match, and are answered in full
+                continue;
+            } else {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Parameter '" + parameter.getParameterName() + "' is not supported in batch requests");
+            }
+            if (value == null) {
+                if (required) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Required parameter '" + name + "' is missing");
+                }
+                continue;
+            }
+            try {
+                args[i] = conversionService.convert(value, STRING_TYPE, new TypeDescriptor(parameter));
+            } catch (ConversionFailedException e) {
+                if (e.getCause() instanceof RuntimeException && !(e.getCause() instanceof IllegalArgumentException)) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw invalidValue(value, name);
+            } catch (ConversionException e) {
+                throw invalidValue(value, name);
+            }
+        }
+        return args;
+    }
+
+    /**
+     * Rebuilds the sub-request's path from its resolved arguments, so the query carries the canonical form of every
+     * parameter the handler reads, defaults included, and nothing else.
+     */
+    public String normalizedPath(SubRequest request, Object[] args) {
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        MethodParameter[] parameters = request.getHandlerMethod().getMethodParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            RequestParam requestParam = parameters[i].getParameterAnnotation(RequestParam.class);
+            if (requestParam != null && args[i] != null) {
+                parameters[i].initParameterNameDiscovery(PARAMETER_NAMES);
+                String value = String.valueOf(conversionService.convert(args[i], String.class));
+                query.add(UriUtils.encodeQueryParam(name(requestParam.name(), parameters[i]), StandardCharsets.UTF_8)
+                        + "=" + UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+            }
+        }
+        return request.getPath() + query;
+    }
+
+    private static ResponseStatusException invalidValue(String value, String name) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Invalid value '" + value + "' of parameter '" + name + "'");
+    }
+
+    private static String name(String declared, MethodParameter parameter) {
+        return StringUtils.hasText(declared) ? declared : parameter.getParameterName();
+    }
+}
@@ -0,0 +1,252 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Inflates gzip request bodies up to {@link RequestInflationProperties#getMaxRequestSize()} when
+ * {@link RequestInflationProperties#isEnabled()} is set, for both blocking and non-blocking ({@link ReadListener})
+ * reads; a larger body is rejected with 413. Otherwise a gzip request body is rejected with 415. Responses are
+ * compressed by the container ({@code server.compression.*}), which has no counterpart for request bodies. Registered
+ * by the gateway and the server with their own properties; only the server, behind the gateway, inflates.
+ */
+public class RequestInflationFilter extends OncePerRequestFilter {
+    private static final String GZIP = "gzip";
+
+    private final RequestInflationProperties properties;
+
+    public RequestInflationFilter(RequestInflationProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!GZIP.equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!properties.isEnabled()) {
+            response.sendError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), "Compressed request bodies are not accepted");
+            return;
+        }
+        try {
+            chain.doFilter(new GzipRequestWrapper(request, properties.getMaxRequestSize().toBytes()), response);
+        } catch (ResponseStatusException e) {
+            if (e.getStatus() != HttpStatus.PAYLOAD_TOO_LARGE || response.isCommitted()) {
+                throw e;
+            }
+            response.sendError(e.getRawStatusCode(), e.getReason());
+        }
+    }
+
+    public static byte[] gzip(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (LeveledGzipOutputStream gzip = new LeveledGzipOutputStream(out, level)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static ResponseStatusException tooLarge(long maxSize) {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "Request body exceeds " + maxSize + " bytes");
+    }
+
+    private static class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+
+    private static class GzipRequestWrapper extends HttpServletRequestWrapper {
+        private static final List<String> HIDDEN_HEADERS = List.of(
+                HttpHeaders.CONTENT_ENCODING.toLowerCase(), HttpHeaders.CONTENT_LENGTH.toLowerCase());
+
+        private final long maxSize;
+        private GzipInputStream inputStream;
+
+        GzipRequestWrapper(HttpServletRequest request, long maxSize) {
+            super(request);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new GzipInputStream(super.getInputStream(), maxSize);
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return HIDDEN_HEADERS.contains(name.toLowerCase()) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return HIDDEN_HEADERS.contains(name.toLowerCase()) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !HIDDEN_HEADERS.contains(name.toLowerCase()))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Inflates the request body. Blocking reads inflate straight from the container's stream. A non-blocking read
+     * collects the compressed body as the container makes it available and hands the listener the inflated body
+     * once it is complete, because the inflater would otherwise block on a partial body. Both the inflated bytes
+     * and the collected compressed bytes are capped at {@code maxSize}.
+     */
+    private static class GzipInputStream extends ServletInputStream {
+        private final ServletInputStream compressed;
+        private final long maxSize;
+        private InputStream body;
+        private volatile boolean ready = true;
+        private boolean finished;
+        private long inflated;
+
+        GzipInputStream(ServletInputStream compressed, long maxSize) {
+            this.compressed = compressed;
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int next = body().read();
+            count(next < 0 ? -1 : 1);
+            return next;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return count(body().read(buffer, offset, length));
+        }
+
+        private int count(int read) {
+            finished = read < 0;
+            if (read > 0) {
+                inflated += read;
+                if (inflated > maxSize) {
+                    throw tooLarge(maxSize);
+                }
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            ready = false;
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            compressed.setReadListener(new ReadListener() {
+                private boolean rejected;
+
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] chunk = new byte[8192];
+                    while (!rejected && compressed.isReady()) {
+                        int read = compressed.read(chunk);
+                        if (read < 0) {
+                            return;
+                        }
+                        if (buffer.size() + read > maxSize) {
+                            rejected = true;
+                            readListener.onError(tooLarge(maxSize));
+                            return;
+                        }
+                        buffer.write(chunk, 0, read);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    if (rejected) {
+                        return;
+                    }
+                    try {
+                        body = new GZIPInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+                        ready = true;
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    readListener.onError(t);
+                }
+            });
+        }
+
+        private InputStream body() throws IOException {
+            if (!ready) {
+                throw new IllegalStateException("Request body is not ready to be read");
+            }
+            if (body == null) {
+                body = new GZIPInputStream(compressed);
+            }
+            return body;
+        }
+    }
+}
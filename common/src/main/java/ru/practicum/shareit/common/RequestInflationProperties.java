@@ -0,0 +1,16 @@
+package ru.practicum.shareit.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of {@link RequestInflationFilter}, bound by each application under its own prefix.
+ */
+@Getter
+@Setter
+public class RequestInflationProperties {
+
+    private boolean enabled = false;
+    private DataSize maxRequestSize = DataSize.ofMegabytes(1);
+}
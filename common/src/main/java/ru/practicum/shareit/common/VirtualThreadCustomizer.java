@@ -0,0 +1,42 @@
+package ru.practicum.shareit.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Hands Tomcat's request processing to a virtual thread per request when {@link VirtualThreadProperties#isEnabled()}
+ * is set. Registered by the gateway and the server with their own properties.
+ */
+@Slf4j
+public class VirtualThreadCustomizer implements TomcatProtocolHandlerCustomizer<ProtocolHandler>, DisposableBean {
+
+    private final VirtualThreadProperties properties;
+    private ExecutorService requestExecutor;
+
+    public VirtualThreadCustomizer(VirtualThreadProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public synchronized void customize(ProtocolHandler protocolHandler) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (requestExecutor == null) {
+            log.info("Handling requests on virtual threads");
+            requestExecutor = VirtualThreads.newThreadPerTaskExecutor();
+        }
+        protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+        }
+    }
+}
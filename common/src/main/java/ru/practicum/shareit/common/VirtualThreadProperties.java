@@ -0,0 +1,14 @@
+package ru.practicum.shareit.common;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings of {@link VirtualThreadCustomizer}, bound by each application under its own prefix.
+ */
+@Getter
+@Setter
+public class VirtualThreadProperties {
+
+    private boolean enabled = false;
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.common;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads are looked up reflectively so that the Java 11 build can use them on a Java 21+ runtime.
+ * On an older runtime the lookup fails at startup instead of silently falling back to platform threads.
+ */
+public final class VirtualThreads {
+
+    static final int MIN_FEATURE_VERSION = 21;
+
+    private VirtualThreads() {
+    }
+
+    public static ExecutorService newThreadPerTaskExecutor() {
+        if (Runtime.version().feature() < MIN_FEATURE_VERSION) {
+            throw unsupported(null);
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | InvocationTargetException e) {
+            throw unsupported(e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Virtual thread executor is not accessible", e);
+        }
+    }
+
+    private static IllegalStateException unsupported(Throwable cause) {
+        return new IllegalStateException("Virtual threads require Java " + MIN_FEATURE_VERSION
+                + " or newer, running on Java " + Runtime.version()
+                + "; disable the virtual-threads profile or run on a newer JDK", cause);
+    }
+}
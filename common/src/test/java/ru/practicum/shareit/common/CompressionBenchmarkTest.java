@@ -0,0 +1,40 @@
+package ru.practicum.shareit.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prints the size and CPU cost of gzipping booking lists at each compression level, as the gateway does for request
+ * bodies ({@code shareit-server.client.request-compression-level}). Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class CompressionBenchmarkTest {
+
+    @Test
+    void should_trade_cpu_for_bytes_on_booking_lists() throws Exception {
+        for (int size : List.of(10, 100, 1000)) {
+            byte[] body = RequestInflationFilterTest.bookings(size);
+            int previous = Integer.MAX_VALUE;
+            for (int level : List.of(1, 4, 6, 9)) {
+                int iterations = Math.max(5, 5000 / size);
+                int compressedSize = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    compressedSize = RequestInflationFilter.gzip(body, level).length;
+                }
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / iterations;
+                log.info("{} bookings, level {}: {} -> {} bytes ({}%), {} us per response", size, level,
+                        body.length, compressedSize, 100 * compressedSize / body.length, micros);
+                assertThat(compressedSize).isLessThan(body.length / 4).isLessThanOrEqualTo(previous);
+                previous = compressedSize;
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestInflationFilterTest {
+
+    private RequestInflationProperties properties;
+    private RequestInflationFilter filter;
+
+    @BeforeEach
+    void init() {
+        properties = new RequestInflationProperties();
+        filter = new RequestInflationFilter(properties);
+    }
+
+    @Test
+    void should_reject_gzip_request_body_when_inflation_is_disabled() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/batch");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(RequestInflationFilter.gzip(bookings(5), 6));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void should_reject_gzip_bomb_with_payload_too_large() throws Exception {
+        properties.setEnabled(true);
+        properties.setMaxRequestSize(DataSize.ofKilobytes(64));
+        byte[] bomb = RequestInflationFilter.gzip(new byte[16 * 1024 * 1024], 9);
+        assertThat(bomb.length).isLessThan(64 * 1024);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/batch");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(bomb);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet drain = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                StreamUtils.drain(req.getInputStream());
+                resp.setStatus(HttpStatus.OK.value());
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(drain));
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE.value());
+    }
+
+    @Test
+    void should_reject_oversized_compressed_body_read_with_listener() throws Exception {
+        properties.setEnabled(true);
+        properties.setMaxRequestSize(DataSize.ofBytes(100));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/batch");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        AsyncInputStream input = new AsyncInputStream(
+                RequestInflationFilter.gzip(bookings(5), 6));
+        HttpServletRequestWrapper asyncRequest = new HttpServletRequestWrapper(request) {
+            @Override
+            public ServletInputStream getInputStream() {
+                return input;
+            }
+        };
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        HttpServlet reader = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServletInputStream in = req.getInputStream();
+                in.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() {
+                        throw new AssertionError("Oversized body handed to the listener");
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        throw new AssertionError("Oversized body handed to the listener");
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        error.set(t);
+                    }
+                });
+                input.deliver(64);
+            }
+        };
+        filter.doFilter(asyncRequest, new MockHttpServletResponse(), new MockFilterChain(reader));
+        assertThat(error.get()).isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+    }
+
+    @Test
+    void should_decompress_gzip_request_body() throws Exception {
+        properties.setEnabled(true);
+        byte[] body = bookings(5);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/batch");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(RequestInflationFilter.gzip(body, 6));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet echo = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                assertThat(req.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+                StreamUtils.copy(req.getInputStream(), resp.getOutputStream());
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(echo));
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    void should_decompress_gzip_request_body_read_with_listener() throws Exception {
+        properties.setEnabled(true);
+        byte[] body = bookings(5);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/batch");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        AsyncInputStream input = new AsyncInputStream(RequestInflationFilter.gzip(body, 6));
+        HttpServletRequestWrapper asyncRequest = new HttpServletRequestWrapper(request) {
+            @Override
+            public ServletInputStream getInputStream() {
+                return input;
+            }
+        };
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        HttpServlet reader = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServletInputStream in = req.getInputStream();
+                in.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        byte[] chunk = new byte[100];
+                        while (in.isReady() && !in.isFinished()) {
+                            int read = in.read(chunk);
+                            if (read > 0) {
+                                received.write(chunk, 0, read);
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        allRead.set(true);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        throw new AssertionError(t);
+                    }
+                });
+                assertThat(in.isReady()).isFalse();
+                input.deliver(7);
+            }
+        };
+        filter.doFilter(asyncRequest, new MockHttpServletResponse(), new MockFilterChain(reader));
+        assertThat(allRead).isTrue();
+        assertThat(received.toByteArray()).isEqualTo(body);
+    }
+
+    /**
+     * A JSON booking list of the shape the server returns, with the repetition that makes it compress well.
+     */
+    static byte[] bookings(int count) {
+        LocalDateTime start = LocalDateTime.of(2023, 3, 1, 12, 0);
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> "{\"id\":" + id
+                        + ",\"start\":\"" + start.plusDays(id) + "\",\"end\":\"" + start.plusDays(id + 1)
+                        + "\",\"status\":\"WAITING\""
+                        + ",\"booker\":{\"id\":" + (id % 7 + 1) + ",\"name\":\"booker" + id % 7
+                        + "\",\"email\":\"booker" + id % 7 + "@ya.ru\"}"
+                        + ",\"item\":{\"id\":" + (id % 13 + 1) + ",\"name\":\"Дрель " + id % 13
+                        + "\",\"description\":\"Простая дрель\",\"available\":true,\"requestId\":null}}")
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A container input stream that hands its content to the read listener in chunks, as a non-blocking read does.
+     */
+    private static class AsyncInputStream extends ServletInputStream {
+        private final byte[] content;
+        private ReadListener listener;
+        private int position;
+        private int available;
+
+        AsyncInputStream(byte[] content) {
+            this.content = content;
+        }
+
+        void deliver(int chunkSize) throws IOException {
+            while (position < content.length) {
+                available = Math.min(chunkSize, content.length - position);
+                listener.onDataAvailable();
+                position += available;
+                available = 0;
+            }
+            listener.onAllDataRead();
+        }
+
+        @Override
+        public int read() {
+            if (available == 0) {
+                throw new IllegalStateException("Read while not ready");
+            }
+            available--;
+            return content[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int read = Math.min(length, available);
+            System.arraycopy(content, position, buffer, offset, read);
+            position += read;
+            available -= read;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return position == content.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return available > 0;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.listener = readListener;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import ru.practicum.shareit.batch.SubRequest;
+import ru.practicum.shareit.batch.SubRequestResolver;
+import ru.practicum.shareit.gateway.batch.BatchClient;
+import ru.practicum.shareit.gateway.batch.SubRequestValidator;
+import ru.practicum.shareit.gateway.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.gateway.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.gateway.common.BaseClient;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+import ru.practicum.shareit.gateway.exception.ExceptionApiHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a batch through the gateway's own controller methods, which call the server's services in process, in one
+ * read-only transaction as the server's batch endpoint does.
+ */
+@Service
+@Profile(ShareItEmbedded.PROFILE)
+public class EmbeddedBatchClient extends BatchClient {
+    private final SubRequestResolver resolver;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final InProcessServer server;
+
+    public EmbeddedBatchClient(@Value("${shareit-server.url}") String serverUrl,
+                               RestTemplateBuilder builder,
+                               ClientHttpRequestFactory requestFactory,
+                               UpstreamIsolation isolation,
+                               SubRequestValidator subRequestValidator,
+                               ObjectMapper objectMapper,
+                               ExceptionApiHandler exceptionApiHandler,
+                               List<BaseClient> clients,
+                               @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                               @Qualifier("mvcConversionService") ConversionService conversionService,
+                               PlatformTransactionManager transactionManager,
+                               InProcessServer server) {
+        super(serverUrl, builder, requestFactory, isolation, subRequestValidator, objectMapper, exceptionApiHandler,
+                clients);
+        this.resolver = new SubRequestResolver(handlerMapping, conversionService);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.server = server;
+    }
+
+    @Override
+    protected ResponseEntity<Object> forward(long userId, List<BatchRequestDto> requests) {
+        return server.call(requestTimeoutMillis(), () -> transactionTemplate.execute(status -> {
+            List<BatchResponseDto> responses = requests.stream()
+                    .map(request -> dispatch(userId, request))
+                    .collect(Collectors.toList());
+            // As on the server: a failed sub-request marks the shared transaction rollback-only, and it only reads.
+            status.setRollbackOnly();
+            return responses;
+        }));
+    }
+
+    private BatchResponseDto dispatch(long userId, BatchRequestDto request) {
+        SubRequest subRequest = resolver.match(request.getMethod(), request.getPath());
+        Object[] args = resolver.resolveArguments(subRequest, userId);
+        HandlerMethod handlerMethod = subRequest.getHandlerMethod();
+        Method method = handlerMethod.getMethod();
+        ReflectionUtils.makeAccessible(method);
+        ResponseEntity<?> response = (ResponseEntity<?>) ReflectionUtils.invokeMethod(method,
+                handlerMethod.createWithResolvedBean().getBean(), args);
+        return new BatchResponseDto(response.getStatusCodeValue(), body(response.getBody()));
+    }
+
+    private Object body(Object body) {
+        if (!(body instanceof byte[])) {
+            return body;
+        }
+        try {
+            return objectMapper.readTree((byte[]) body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.gateway.booking.BookingClient;
+import ru.practicum.shareit.gateway.booking.State;
+import ru.practicum.shareit.gateway.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.gateway.common.ResponseCache;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+
+@Service
+@Profile(ShareItEmbedded.PROFILE)
+public class EmbeddedBookingClient extends BookingClient {
+    private final BookingService bookingService;
+    private final InProcessServer server;
+
+    public EmbeddedBookingClient(@Value("${shareit-server.url}") String serverUrl,
+                                 RestTemplateBuilder builder,
+                                 ClientHttpRequestFactory requestFactory,
+                                 ResponseCache responseCache,
+                                 UpstreamIsolation isolation,
+                                 BookingService bookingService,
+                                 InProcessServer server) {
+        super(serverUrl, builder, requestFactory, responseCache, isolation);
+        this.bookingService = bookingService;
+        this.server = server;
+    }
+
+    @Override
+    public ResponseEntity<Object> getByBookerId(long bookerId, State state, int from, int size) {
+        return server.call(requestTimeoutMillis(),
+                () -> bookingService.getByBookerId(bookerId, serverState(state), from, size));
+    }
+
+    @Override
+    public ResponseEntity<Object> create(long bookerId, BookingRequestDto bookingRequestDto) {
+        return server.call(requestTimeoutMillis(), () -> bookingService.create(bookerId,
+                server.convert(bookingRequestDto, ru.practicum.shareit.booking.dto.BookingRequestDto.class)));
+    }
+
+    @Override
+    public ResponseEntity<Object> get(long userId, Long bookingId) {
+        return server.conditional(requestTimeoutMillis(), () -> bookingService.getETag(userId, bookingId),
+                () -> bookingService.get(userId, bookingId));
+    }
+
+    @Override
+    public ResponseEntity<Object> updateStatus(long ownerId, long bookingId, boolean approved) {
+        return server.call(requestTimeoutMillis(), () -> bookingService.updateStatus(ownerId, bookingId, approved));
+    }
+
+    @Override
+    public ResponseEntity<Object> getByOwnerId(long ownerId, State state, int from, int size) {
+        return server.call(requestTimeoutMillis(),
+                () -> bookingService.getByOwnerId(ownerId, serverState(state), from, size));
+    }
+
+    private static ru.practicum.shareit.booking.State serverState(State state) {
+        return ru.practicum.shareit.booking.State.valueOf(state.name());
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.gateway.common.ResponseCache;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+import ru.practicum.shareit.gateway.item.ItemClient;
+import ru.practicum.shareit.gateway.item.ShardedItemSearch;
+import ru.practicum.shareit.gateway.item.dto.CommentDto;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+import ru.practicum.shareit.item.ItemService;
+
+@Service
+@Profile(ShareItEmbedded.PROFILE)
+public class EmbeddedItemClient extends ItemClient {
+    private final ItemService itemService;
+    private final InProcessServer server;
+
+    public EmbeddedItemClient(@Value("${shareit-server.url}") String serverUrl,
+                              RestTemplateBuilder builder,
+                              ClientHttpRequestFactory requestFactory,
+                              ResponseCache responseCache,
+                              ShardedItemSearch shardedSearch,
+                              UpstreamIsolation isolation,
+                              ItemService itemService,
+                              InProcessServer server) {
+        super(serverUrl, builder, requestFactory, responseCache, shardedSearch, isolation);
+        this.itemService = itemService;
+        this.server = server;
+    }
+
+    @Override
+    public ResponseEntity<Object> create(long userId, ItemDto itemDto) {
+        return server.call(requestTimeoutMillis(), () -> itemService.create(userId,
+                server.convert(itemDto, ru.practicum.shareit.item.dto.ItemDto.class)));
+    }
+
+    @Override
+    public ResponseEntity<Object> update(long userId, long itemId, ItemDto itemDto) {
+        return server.call(requestTimeoutMillis(), () -> itemService.update(userId, itemId,
+                server.convert(itemDto, ru.practicum.shareit.item.dto.ItemDto.class)));
+    }
+
+    @Override
+    public ResponseEntity<Object> getAll(long userId, int from, int size) {
+        return server.call(requestTimeoutMillis(), () -> itemService.getAll(userId, from, size));
+    }
+
+    @Override
+    public ResponseEntity<Object> get(long userId, long itemId) {
+        return server.conditional(requestTimeoutMillis(), () -> itemService.getETag(userId, itemId),
+                () -> itemService.get(userId, itemId));
+    }
+
+    @Override
+    public ResponseEntity<Object> search(long userId, String text, int from, int size) {
+        return server.call(requestTimeoutMillis(), () -> itemService.search(userId, text, from, size));
+    }
+
+    @Override
+    public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
+        return server.call(requestTimeoutMillis(), () -> itemService.createComment(userId, itemId,
+                server.convert(commentDto, ru.practicum.shareit.item.dto.CommentDto.class)));
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.gateway.common.ResponseCache;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+import ru.practicum.shareit.gateway.request.ItemRequestClient;
+import ru.practicum.shareit.gateway.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.ItemRequestService;
+
+@Service
+@Profile(ShareItEmbedded.PROFILE)
+public class EmbeddedItemRequestClient extends ItemRequestClient {
+    private final ItemRequestService itemRequestService;
+    private final InProcessServer server;
+
+    public EmbeddedItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                                     RestTemplateBuilder builder,
+                                     ClientHttpRequestFactory requestFactory,
+                                     ResponseCache responseCache,
+                                     UpstreamIsolation isolation,
+                                     ItemRequestService itemRequestService,
+                                     InProcessServer server) {
+        super(serverUrl, builder, requestFactory, responseCache, isolation);
+        this.itemRequestService = itemRequestService;
+        this.server = server;
+    }
+
+    @Override
+    public ResponseEntity<Object> create(long userId, ItemRequestDto itemRequestDto) {
+        return server.call(requestTimeoutMillis(), () -> itemRequestService.create(userId,
+                server.convert(itemRequestDto, ru.practicum.shareit.request.dto.ItemRequestDto.class)));
+    }
+
+    @Override
+    public ResponseEntity<Object> getAllByUserId(long userId) {
+        return server.call(requestTimeoutMillis(), () -> itemRequestService.getAllByUserId(userId));
+    }
+
+    @Override
+    public ResponseEntity<Object> get(long userId, long requestId) {
+        return server.conditional(requestTimeoutMillis(), () -> itemRequestService.getETag(userId, requestId),
+                () -> itemRequestService.get(userId, requestId));
+    }
+
+    @Override
+    public ResponseEntity<Object> getAll(long userId, int from, int size) {
+        return server.call(requestTimeoutMillis(), () -> itemRequestService.getAll(userId, from, size));
+    }
+}
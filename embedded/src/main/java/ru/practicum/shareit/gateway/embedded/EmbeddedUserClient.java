@@ -0,0 +1,74 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.gateway.common.ResponseCache;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+import ru.practicum.shareit.gateway.user.KnownUsers;
+import ru.practicum.shareit.gateway.user.UserClient;
+import ru.practicum.shareit.gateway.user.dto.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+@Service
+@Profile(ShareItEmbedded.PROFILE)
+public class EmbeddedUserClient extends UserClient {
+    private final UserService userService;
+    private final KnownUsers knownUsers;
+    private final InProcessServer server;
+
+    public EmbeddedUserClient(@Value("${shareit-server.url}") String serverUrl,
+                              RestTemplateBuilder builder,
+                              ClientHttpRequestFactory requestFactory,
+                              ResponseCache responseCache,
+                              UpstreamIsolation isolation,
+                              KnownUsers knownUsers,
+                              UserService userService,
+                              InProcessServer server) {
+        super(serverUrl, builder, requestFactory, responseCache, isolation, knownUsers);
+        this.userService = userService;
+        this.knownUsers = knownUsers;
+        this.server = server;
+    }
+
+    @Override
+    public ResponseEntity<Object> create(UserDto userDto) {
+        ResponseEntity<Object> response = server.call(requestTimeoutMillis(), () -> userService.create(
+                server.convert(userDto, ru.practicum.shareit.user.dto.UserDto.class)));
+        knownUsers.add(response);
+        return response;
+    }
+
+    @Override
+    public ResponseEntity<Object> update(UserDto userDto) {
+        return server.call(requestTimeoutMillis(), () -> userService.update(
+                server.convert(userDto, ru.practicum.shareit.user.dto.UserDto.class)));
+    }
+
+    @Override
+    public ResponseEntity<Object> getAll() {
+        return server.call(requestTimeoutMillis(), userService::getAll);
+    }
+
+    @Override
+    public ResponseEntity<Object> getIds(long afterId, int size) {
+        return server.call(requestTimeoutMillis(), () -> userService.getIds(afterId, size));
+    }
+
+    @Override
+    public ResponseEntity<Object> get(long id) {
+        return server.conditional(requestTimeoutMillis(), () -> userService.getETag(id), () -> userService.get(id));
+    }
+
+    @Override
+    public ResponseEntity<Object> delete(long id) {
+        ResponseEntity<Object> response = server.run(requestTimeoutMillis(), () -> userService.delete(id));
+        if (response.getStatusCode().is2xxSuccessful()) {
+            knownUsers.markMissing(id);
+        }
+        return response;
+    }
+}
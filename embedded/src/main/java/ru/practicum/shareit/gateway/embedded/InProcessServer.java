@@ -0,0 +1,134 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.batch.AdviceExceptionHandler;
+import ru.practicum.shareit.common.EntityTags;
+import ru.practicum.shareit.common.RequestDeadline;
+import ru.practicum.shareit.exception.ExceptionApiHandler;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.function.Supplier;
+
+/**
+ * Calls the server's services for the embedded clients and answers the way the server's controllers would: the
+ * result as JSON with 200, or the status and error the server's controller advice gives for the exception. The
+ * gateway handles these responses exactly like ones read from the server, which also come with a JSON body.
+ * <p>
+ * What the server's web layer adds is done here as well: the call runs under the deadline the gateway would have sent
+ * in {@value RequestDeadline#HEADER}, and a GET of a single resource is tagged with the ETag the service computes from
+ * its entity versions, answering with 304 when it matches the client's {@code If-None-Match}.
+ */
+@Component
+@Profile(ShareItEmbedded.PROFILE)
+public class InProcessServer {
+
+    private final ObjectMapper objectMapper;
+    private final AdviceExceptionHandler exceptionHandler = new AdviceExceptionHandler(new ExceptionApiHandler());
+
+    public InProcessServer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Converts a gateway DTO to the server DTO it is sent as; both map to the same JSON.
+     */
+    public <T> T convert(Object dto, Class<T> type) {
+        return objectMapper.convertValue(dto, type);
+    }
+
+    public ResponseEntity<Object> call(@Nullable Long timeoutMillis, Supplier<?> call) {
+        Object body;
+        try {
+            body = withDeadline(timeoutMillis, call);
+        } catch (RuntimeException e) {
+            return error(e);
+        }
+        return json(HttpStatus.OK, body);
+    }
+
+    /**
+     * Calls the service like {@link #call}, but first computes the resource's ETag and, when the client already has
+     * that version, answers with 304 without reading the resource. Sub-requests of a batch run inside its POST and are
+     * answered in full.
+     */
+    public ResponseEntity<Object> conditional(@Nullable Long timeoutMillis, Supplier<String> eTag, Supplier<?> call) {
+        String ifNoneMatch = clientIfNoneMatch();
+        try {
+            return withDeadline(timeoutMillis, () -> {
+                String tag = eTag.get();
+                if (EntityTags.matches(ifNoneMatch, tag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+                }
+                ResponseEntity<Object> response = json(HttpStatus.OK, call.get());
+                return ResponseEntity.ok()
+                        .headers(response.getHeaders())
+                        .eTag(tag)
+                        .body(response.getBody());
+            });
+        } catch (RuntimeException e) {
+            return error(e);
+        }
+    }
+
+    public ResponseEntity<Object> run(@Nullable Long timeoutMillis, Runnable call) {
+        try {
+            withDeadline(timeoutMillis, () -> {
+                call.run();
+                return null;
+            });
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return error(e);
+        }
+    }
+
+    private static <T> T withDeadline(@Nullable Long timeoutMillis, Supplier<T> call) {
+        return timeoutMillis != null ? RequestDeadline.within(timeoutMillis, call) : call.get();
+    }
+
+    @Nullable
+    private static String clientIfNoneMatch() {
+        HttpServletRequest request = currentRequest();
+        return request != null && HttpMethod.GET.matches(request.getMethod())
+                ? request.getHeader(HttpHeaders.IF_NONE_MATCH)
+                : null;
+    }
+
+    @Nullable
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getRequest()
+                : null;
+    }
+
+    private ResponseEntity<Object> error(RuntimeException e) {
+        ResponseEntity<?> response = exceptionHandler.handle(e);
+        if (response == null) {
+            throw e;
+        }
+        return json(response.getStatusCode(), response.getBody());
+    }
+
+    private ResponseEntity<Object> json(HttpStatus status, Object body) {
+        try {
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Couldn't write response of the server as JSON", e);
+        }
+    }
+}
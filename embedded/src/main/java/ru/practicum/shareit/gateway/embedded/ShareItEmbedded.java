@@ -0,0 +1,70 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.gateway.ShareItGateway;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+/**
+ * Runs the gateway and the server in one JVM. The server starts as a non-web parent context; the gateway starts as
+ * its child with the {@value #PROFILE} profile, where the clients call the server's services instead of sending
+ * requests. Each context reads its own module's {@code application.properties}, which share the classpath here.
+ * Closing the server context closes the gateway too.
+ */
+public class ShareItEmbedded {
+
+	public static final String PROFILE = "embedded";
+
+	// The server's JPA stack is on the classpath now, but the gateway has no database of its own: embedded, it reaches
+	// the server's through the parent context, and these would only initialise the schema a second time.
+	static final String[] GATEWAY_DEFAULTS = {
+			"spring.autoconfigure.exclude="
+					+ "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+					+ "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration,"
+					+ "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration,"
+					+ "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration,"
+					+ "org.springframework.boot.autoconfigure.sql.init.SqlInitializationAutoConfiguration"
+	};
+
+	public static void main(String[] args) {
+		run(args);
+	}
+
+	public static ConfigurableApplicationContext run(String... args) {
+		ConfigurableApplicationContext server = new SpringApplicationBuilder(ShareItServer.class)
+				.web(WebApplicationType.NONE)
+				.run(withConfigOf(ShareItServer.class, args));
+		return new SpringApplicationBuilder(ShareItGateway.class)
+				.parent(server)
+				.profiles(PROFILE)
+				.properties(GATEWAY_DEFAULTS)
+				.run(withConfigOf(ShareItGateway.class, args));
+	}
+
+	/**
+	 * Prepends the location of the {@code application.properties} packaged with {@code application} to the arguments,
+	 * so later {@code --spring.config.location} arguments are still added on top of it.
+	 */
+	static String[] withConfigOf(Class<?> application, String... args) {
+		String source = application.getProtectionDomain().getCodeSource().getLocation().toString();
+		try {
+			String location = Collections.list(application.getClassLoader().getResources("application.properties"))
+					.stream()
+					.map(URL::toString)
+					.filter(url -> url.startsWith(source) || url.startsWith("jar:" + source + "!/"))
+					.findFirst()
+					.orElseThrow(() -> new IllegalStateException("No application.properties next to " + application));
+			return Stream.concat(Stream.of("--spring.config.location=" + location), Stream.of(args))
+					.toArray(String[]::new);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
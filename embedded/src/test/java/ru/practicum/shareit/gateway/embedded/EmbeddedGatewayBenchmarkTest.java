@@ -0,0 +1,164 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.gateway.ShareItGateway;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the two deployment modes on the same request, a GET of an item with its bookings and comments: the gateway
+ * in front of a separate server it calls over HTTP, and the embedded gateway calling the server's services in process.
+ * Both run in this JVM on the same database, and the gateway features that could answer without the server, such as
+ * the response cache and coalescing, are off, so the hop is the only difference. Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class EmbeddedGatewayBenchmarkTest {
+    private static final int CLIENTS = 8;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+    private static final String[] COMMON_ARGS = {
+            "--server.port=0",
+            "--shareit-gateway.concurrency-limit.enabled=false",
+            "--shareit-gateway.rate-limit.enabled=false",
+            "--shareit-gateway.cache.enabled=false",
+            "--shareit-gateway.coalescing.enabled=false",
+            "--shareit-gateway.hedging.enabled=false",
+            "--logging.level.ru.practicum.shareit=WARN",
+            "--logging.level.ru.practicum.shareit.gateway.embedded=INFO",
+            "--logging.level.org.springframework.web.client.RestTemplate=INFO"
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void should_answer_faster_without_the_server_hop() throws Exception {
+        Result twoTier;
+        try (ConfigurableApplicationContext server = new SpringApplicationBuilder(ShareItServer.class)
+                .run(ShareItEmbedded.withConfigOf(ShareItServer.class, COMMON_ARGS))) {
+            int serverPort = ((ServletWebServerApplicationContext) server).getWebServer().getPort();
+            String[] args = Stream.concat(Stream.of(COMMON_ARGS),
+                    Stream.of("--shareit-server.url=http://localhost:" + serverPort)).toArray(String[]::new);
+            try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                    .properties(ShareItEmbedded.GATEWAY_DEFAULTS)
+                    .run(ShareItEmbedded.withConfigOf(ShareItGateway.class, args))) {
+                twoTier = measure("two-tier", gateway);
+            }
+        }
+        ConfigurableApplicationContext gateway = ShareItEmbedded.run(COMMON_ARGS);
+        Result embedded;
+        try {
+            embedded = measure("embedded", gateway);
+        } finally {
+            ((ConfigurableApplicationContext) gateway.getParent()).close();
+        }
+        assertThat(embedded.errors).isZero();
+        assertThat(twoTier.errors).isZero();
+        assertThat(embedded.percentileMicros(0.5)).isLessThan(twoTier.percentileMicros(0.5));
+    }
+
+    private Result measure(String mode, ConfigurableApplicationContext gateway) throws Exception {
+        String base = "http://localhost:" + ((ServletWebServerApplicationContext) gateway).getWebServer().getPort();
+        long userId = create(base + "/users", null, "{\"name\":\"Owner\",\"email\":\"owner@mail.ru\"}");
+        long itemId = create(base + "/items", userId,
+                "{\"name\":\"Drill\",\"description\":\"Cordless drill\",\"available\":true}");
+        HttpRequest get = HttpRequest.newBuilder(URI.create(base + "/items/" + itemId))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .build();
+        run(get, WARM_UP);
+        Result result = run(get, MEASUREMENT);
+        log.info("{}: {} requests/s, p50 {} us, p99 {} us, {} errors", mode, result.throughput(),
+                result.percentileMicros(0.5), result.percentileMicros(0.99), result.errors);
+        return result;
+    }
+
+    private long create(String uri, Long userId, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).path("id").asLong();
+    }
+
+    private Result run(HttpRequest request, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : clients) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Result(latencies, errors.get(), duration);
+    }
+
+    private static class Result {
+        private final long[] latencies;
+        private final long errors;
+        private final Duration duration;
+
+        Result(ConcurrentLinkedQueue<Long> latencies, long errors, Duration duration) {
+            this.latencies = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            this.errors = errors;
+            this.duration = duration;
+        }
+
+        long throughput() {
+            return latencies.length / Math.max(1, duration.toSeconds());
+        }
+
+        long percentileMicros(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            return latencies[(int) (latencies.length * percentile)] / 1000;
+        }
+    }
+}
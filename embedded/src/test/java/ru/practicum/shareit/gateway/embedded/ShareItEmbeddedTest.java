@@ -0,0 +1,120 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.gateway.item.ItemClient;
+import ru.practicum.shareit.item.ItemService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShareItEmbeddedTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static ServletWebServerApplicationContext gateway;
+    private static HttpClient client;
+
+    @BeforeAll
+    static void start() {
+        gateway = (ServletWebServerApplicationContext) ShareItEmbedded.run("--server.port=0");
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stop() {
+        ((ConfigurableApplicationContext) gateway.getParent()).close();
+    }
+
+    @Test
+    void should_call_server_services_in_process() {
+        assertInstanceOf(EmbeddedItemClient.class, gateway.getBean(ItemClient.class));
+        assertNotNull(gateway.getBean(ItemService.class));
+        assertFalse(gateway.getParent().containsBean("itemClient"));
+    }
+
+    @Test
+    void should_serve_requests_without_a_server_hop() throws Exception {
+        long userId = send("POST", "/users", null, "{\"name\":\"Owner\",\"email\":\"owner@mail.ru\"}")
+                .path("id").asLong();
+        String item = "{\"name\":\"Drill\",\"description\":\"Cordless drill\",\"available\":true}";
+        long itemId = send("POST", "/items", userId, item).path("id").asLong();
+
+        HttpResponse<String> found = exchange("GET", "/items/" + itemId, userId, null);
+        assertEquals(200, found.statusCode());
+        assertEquals("Drill", MAPPER.readTree(found.body()).path("name").asText());
+
+        HttpResponse<String> batch = exchange("POST", "/batch", userId,
+                "[{\"method\":\"GET\",\"path\":\"/items/" + itemId + "\"},{\"method\":\"GET\",\"path\":\"/items/999\"}]");
+        assertEquals(200, batch.statusCode());
+        JsonNode responses = MAPPER.readTree(batch.body());
+        assertEquals(200, responses.path(0).path("status").asInt());
+        assertEquals("Drill", responses.path(0).path("body").path("name").asText());
+        assertEquals(404, responses.path(1).path("status").asInt());
+    }
+
+    @Test
+    void should_answer_conditional_get_with_not_modified() throws Exception {
+        long userId = send("POST", "/users", null, "{\"name\":\"Renter\",\"email\":\"renter@mail.ru\"}")
+                .path("id").asLong();
+        String etag = exchange("GET", "/users/" + userId, null, null).headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> notModified = exchange("GET", "/users/" + userId, null, null, etag);
+        assertEquals(304, notModified.statusCode());
+        assertEquals(etag, notModified.headers().firstValue("ETag").orElseThrow());
+
+        send("PATCH", "/users/" + userId, userId, "{\"name\":\"Tenant\"}");
+        HttpResponse<String> changed = exchange("GET", "/users/" + userId, null, null, etag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void should_answer_with_statuses_of_both_tiers() throws Exception {
+        long userId = send("POST", "/users", null, "{\"name\":\"Booker\",\"email\":\"booker@mail.ru\"}")
+                .path("id").asLong();
+        assertEquals(400, exchange("POST", "/items", userId, "{\"name\":\"Drill\"}").statusCode());
+        assertEquals(400, exchange("GET", "/bookings?state=sometimes", userId, null).statusCode());
+        HttpResponse<String> missing = exchange("GET", "/items/999", userId, null);
+        assertEquals(404, missing.statusCode());
+        assertTrue(MAPPER.readTree(missing.body()).path("error").asText().contains("999"));
+        assertEquals(404, exchange("GET", "/users/999", null, null).statusCode());
+    }
+
+    private static JsonNode send(String method, String path, Long userId, String body) throws Exception {
+        HttpResponse<String> response = exchange(method, path, userId, body);
+        assertEquals(200, response.statusCode(), response.body());
+        return MAPPER.readTree(response.body());
+    }
+
+    private static HttpResponse<String> exchange(String method, String path, Long userId, String body)
+            throws IOException, InterruptedException {
+        return exchange(method, path, userId, body, null);
+    }
+
+    private static HttpResponse<String> exchange(String method, String path, Long userId, String body,
+                                                 String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + gateway.getWebServer().getPort() + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
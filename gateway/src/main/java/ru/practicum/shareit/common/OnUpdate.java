@@ -1,4 +0,0 @@
-package ru.practicum.shareit.common;
-
-public interface OnUpdate {
-}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.gateway.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.batch.AdviceExceptionHandler;
+import ru.practicum.shareit.gateway.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.gateway.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.gateway.common.BaseClient;
+import ru.practicum.shareit.gateway.common.RequestPriority;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+import ru.practicum.shareit.gateway.exception.ErrorMessage;
+import ru.practicum.shareit.gateway.exception.ExceptionApiHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("!reactive & !embedded")
+public class BatchClient extends BaseClient {
+    private static final String API_PREFIX = "/batch";
+    private static final String ROUTE = "batch";
+    private final SubRequestValidator subRequestValidator;
+    private final ObjectMapper objectMapper;
+    private final AdviceExceptionHandler exceptionHandler;
+    private final Map<String, BaseClient> routeClients;
+
+    @Autowired
+    public BatchClient(@Value("${shareit-server.url}") String serverUrl,
+                       RestTemplateBuilder builder,
+                       ClientHttpRequestFactory requestFactory,
+                       UpstreamIsolation isolation,
+                       SubRequestValidator subRequestValidator,
+                       ObjectMapper objectMapper,
+                       ExceptionApiHandler exceptionApiHandler,
+                       List<BaseClient> clients) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                isolation,
+                ROUTE
+        );
+        this.subRequestValidator = subRequestValidator;
+        this.objectMapper = objectMapper;
+        this.exceptionHandler = new AdviceExceptionHandler(exceptionApiHandler);
+        this.routeClients = clients.stream().collect(Collectors.toMap(BaseClient::getRoute, Function.identity()));
+    }
+
+    @Override
+    protected RequestPriority priority(HttpMethod method, String path) {
+        return RequestPriority.NORMAL;
+    }
+
+    /**
+     * Each sub-request is charged to its own route as if it had been sent alone: the route's rate limit and
+     * validation in {@link SubRequestValidator}, then a concurrency permit of its route at the route's priority,
+     * held until the batch returns. Rejected sub-requests get the status the route would answer with.
+     */
+    public ResponseEntity<Object> execute(long userId, List<BatchRequestDto> requests) {
+        BatchResponseDto[] responses = new BatchResponseDto[requests.size()];
+        List<BatchRequestDto> forwarded = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        List<BaseClient> admitted = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                try {
+                    BatchRequestDto request = subRequestValidator.validate(userId, requests.get(i));
+                    BaseClient client = routeClients.get(route(request.getPath()));
+                    if (client != null) {
+                        client.admit(HttpMethod.GET, request.getPath().substring(client.getRoute().length() + 1));
+                        admitted.add(client);
+                    }
+                    forwarded.add(request);
+                    positions.add(i);
+                } catch (ResponseStatusException e) {
+                    responses[i] = new BatchResponseDto(e.getRawStatusCode(),
+                            new ErrorMessage(e.getReason(), Arrays.toString(e.getStackTrace())));
+                } catch (RuntimeException e) {
+                    ResponseEntity<?> response = exceptionHandler.handle(e);
+                    if (response == null) {
+                        throw e;
+                    }
+                    responses[i] = new BatchResponseDto(response.getStatusCodeValue(), response.getBody());
+                }
+            }
+            if (!forwarded.isEmpty()) {
+                ResponseEntity<Object> response = forward(userId, forwarded);
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    return response;
+                }
+                BatchResponseDto[] upstream;
+                try {
+                    upstream = objectMapper.readValue((byte[]) response.getBody(), BatchResponseDto[].class);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                for (int i = 0; i < upstream.length; i++) {
+                    responses[positions.get(i)] = upstream[i];
+                }
+            }
+        } finally {
+            admitted.forEach(BaseClient::releaseAdmission);
+        }
+        return ResponseEntity.ok(Arrays.asList(responses));
+    }
+
+    /**
+     * Sends the admitted sub-requests to the server in one request and returns its response with the body as JSON.
+     */
+    protected ResponseEntity<Object> forward(long userId, List<BatchRequestDto> requests) {
+        return post("", userId, requests);
+    }
+
+    private static String route(String path) {
+        int end = path.indexOf('/', 1);
+        int query = path.indexOf('?');
+        if (end < 0 || query >= 0 && query < end) {
+            end = query;
+        }
+        return end < 0 ? path.substring(1) : path.substring(1, end);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.gateway.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.gateway.batch.dto.BatchRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Controller
+@Profile("!reactive")
+@RequestMapping(path = "/batch")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class BatchController {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_REQUESTS = 20;
+    private final BatchClient batchClient;
+
+    @PostMapping
+    ResponseEntity<Object> execute(@RequestHeader(USER_HEADER) long userId,
+                                   @RequestBody @NotEmpty @Size(max = MAX_REQUESTS) List<@Valid BatchRequestDto> requests) {
+        log.info("Executing batch of " + requests.size() + " requests of user with ID: '" + userId + "'");
+        return batchClient.execute(userId, requests);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.gateway.batch;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import ru.practicum.shareit.batch.SubRequest;
+import ru.practicum.shareit.batch.SubRequestResolver;
+import ru.practicum.shareit.gateway.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.gateway.common.RateLimitInterceptor;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.util.Set;
+
+/**
+ * Runs a sub-request through what its route does on its own before it is forwarded: the route's rate limit,
+ * argument conversion and parameter validation. Returns the sub-request with its query rewritten to the converted
+ * values, so the server sees e.g. {@code state=WAITING} for {@code state=waiting}.
+ */
+@Component
+@Profile("!reactive")
+public class SubRequestValidator {
+
+    private final SubRequestResolver resolver;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final Validator validator;
+
+    public SubRequestValidator(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                               @Qualifier("mvcConversionService") ConversionService conversionService,
+                               RateLimitInterceptor rateLimitInterceptor,
+                               Validator validator) {
+        this.resolver = new SubRequestResolver(handlerMapping, conversionService);
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.validator = validator;
+    }
+
+    public BatchRequestDto validate(long userId, BatchRequestDto request) {
+        SubRequest subRequest = resolver.match(request.getMethod(), request.getPath());
+        HandlerMethod handlerMethod = subRequest.getHandlerMethod();
+        rateLimitInterceptor.acquire(handlerMethod, HttpMethod.GET.name(), String.valueOf(userId));
+        Object[] args = resolver.resolveArguments(subRequest, userId);
+        Set<ConstraintViolation<Object>> violations = validator.forExecutables()
+                .validateParameters(handlerMethod.createWithResolvedBean().getBean(), handlerMethod.getMethod(), args);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return new BatchRequestDto(HttpMethod.GET.name(), resolver.normalizedPath(subRequest, args));
+    }
+}
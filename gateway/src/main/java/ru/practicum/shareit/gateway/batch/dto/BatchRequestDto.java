@@ -0,0 +1,23 @@
+package ru.practicum.shareit.gateway.batch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDto {
+
+    @NotBlank
+    private String method;
+
+    @NotBlank
+    @Pattern(regexp = "/.*")
+    private String path;
+}
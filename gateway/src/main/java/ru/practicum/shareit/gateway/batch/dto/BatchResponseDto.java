@@ -0,0 +1,16 @@
+package ru.practicum.shareit.gateway.batch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponseDto {
+
+    private int status;
+    private Object body;
+}
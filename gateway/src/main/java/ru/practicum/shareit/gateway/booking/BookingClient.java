@@ -1,29 +1,42 @@
-package ru.practicum.shareit.booking;
+package ru.practicum.shareit.gateway.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.booking.dto.BookingRequestDto;
-import ru.practicum.shareit.common.BaseClient;
+import ru.practicum.shareit.gateway.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.gateway.common.BaseClient;
+import ru.practicum.shareit.gateway.common.ResponseCache;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
 
 import java.util.Map;
 
 @Service
+@Profile("!reactive & !embedded")
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final String ROUTE = "bookings";
+    private final ResponseCache responseCache;
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory,
+                         ResponseCache responseCache,
+                         UpstreamIsolation isolation) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                isolation,
+                ROUTE
         );
+        this.responseCache = responseCache;
     }
 
     public ResponseEntity<Object> getByBookerId(long bookerId, State state, int from, int size) {
@@ -44,7 +57,9 @@ public class BookingClient extends BaseClient {
     }
 
     public ResponseEntity<Object> updateStatus(long ownerId, long bookingId, boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, ownerId);
+        ResponseEntity<Object> response = patch("/" + bookingId + "?approved=" + approved, ownerId);
+        responseCache.evictReferenced(ResponseCache.ITEMS, response, "item", "id");
+        return response;
     }
 
     public ResponseEntity<Object> getByOwnerId(long ownerId, State state, int from, int size) {
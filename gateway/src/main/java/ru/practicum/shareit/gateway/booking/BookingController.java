@@ -1,18 +1,21 @@
-package ru.practicum.shareit.booking;
+package ru.practicum.shareit.gateway.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.booking.dto.BookingRequestDto;
-import ru.practicum.shareit.common.OnCreate;
+import ru.practicum.shareit.gateway.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.gateway.common.OnCreate;
+import ru.practicum.shareit.gateway.common.RateLimit;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
 @Controller
+@Profile("!reactive")
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Validated
@@ -24,15 +27,15 @@ public class BookingController {
 
     @GetMapping
     ResponseEntity<Object> getByBookerId(@RequestHeader(USER_HEADER) long bookerId,
-                                         @RequestParam(name = "state", required = false) String state,
+                                         @RequestParam(name = "state", defaultValue = "ALL") State state,
                                          @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
                                          @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
         log.info("Receiving all bookings of booker with ID: '" + bookerId + "'");
-        State enumState = State.parseState(state);
-        return bookingClient.getByBookerId(bookerId, enumState, from, size);
+        return bookingClient.getByBookerId(bookerId, state, from, size);
     }
 
     @PostMapping
+    @RateLimit("booking-create")
     ResponseEntity<Object> create(@RequestHeader(USER_HEADER) long bookerId,
                                   @Validated({OnCreate.class}) @RequestBody BookingRequestDto bookingRequestDto) {
         log.info("Creating booking from request body: " + bookingRequestDto.toString());
@@ -56,11 +59,10 @@ public class BookingController {
 
     @GetMapping(path = "/owner")
     ResponseEntity<Object> getByOwnerId(@RequestHeader(USER_HEADER) long ownerId,
-                                        @RequestParam(name = "state", required = false) String state,
+                                        @RequestParam(name = "state", defaultValue = "ALL") State state,
                                         @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
                                         @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
         log.info("Receiving all bookings to items of owner with ID: '" + ownerId + "'");
-        State enumState = State.parseState(state);
-        return bookingClient.getByOwnerId(ownerId, enumState, from, size);
+        return bookingClient.getByOwnerId(ownerId, state, from, size);
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.gateway.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.gateway.common.ReactiveBaseClient;
+
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    @Autowired
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<Object>> getByBookerId(long bookerId, State state, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        );
+        return get("?state={state}&from={from}&size={size}", bookerId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> create(long bookerId, BookingRequestDto bookingRequestDto) {
+        return post("", bookerId, bookingRequestDto);
+    }
+
+    public Mono<ResponseEntity<Object>> get(long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> updateStatus(long ownerId, long bookingId, boolean approved) {
+        return patch("/" + bookingId + "?approved=" + approved, ownerId);
+    }
+
+    public Mono<ResponseEntity<Object>> getByOwnerId(long ownerId, State state, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        );
+        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+    }
+}
\ No newline at end of file
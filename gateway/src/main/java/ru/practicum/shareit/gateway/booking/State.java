@@ -1,6 +1,6 @@
-package ru.practicum.shareit.booking;
+package ru.practicum.shareit.gateway.booking;
 
-import ru.practicum.shareit.exception.UnsupportedStatusException;
+import ru.practicum.shareit.gateway.exception.UnsupportedStatusException;
 
 public enum State {
     ALL,
@@ -1,9 +1,9 @@
-package ru.practicum.shareit.booking.dto;
+package ru.practicum.shareit.gateway.booking.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import ru.practicum.shareit.common.OnCreate;
+import ru.practicum.shareit.gateway.common.OnCreate;
 
 import javax.validation.constraints.Future;
 import javax.validation.constraints.FutureOrPresent;
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.gateway.common;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Creates requests that can be aborted from another thread while they wait for the server, which is how
+ * {@link RequestHedger} stops the losing attempt. Aborting closes the attempt's connection instead of returning it
+ * to the pool.
+ * <p>
+ * A request that carries {@link BaseClient#REQUEST_TIMEOUT_HEADER} has its connect and socket timeouts clamped to
+ * that deadline, so an upstream that stops answering fails with a {@link java.net.SocketTimeoutException} (a 504)
+ * when the deadline expires rather than after the client's much longer read timeout.
+ */
+public class AbortableClientHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+    private final ThreadLocal<HttpUriRequest> created = new ThreadLocal<>();
+    @Nullable
+    private final RequestConfig defaults;
+
+    public AbortableClientHttpRequestFactory(HttpClient httpClient) {
+        super(httpClient);
+        this.defaults = createRequestConfig(httpClient);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        try {
+            ClientHttpRequest request = super.createRequest(uri, httpMethod);
+            return new AbortableClientHttpRequest(request, created.get(), defaults);
+        } finally {
+            created.remove();
+        }
+    }
+
+    @Override
+    protected HttpUriRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+        HttpUriRequest request = super.createHttpUriRequest(httpMethod, uri);
+        created.set(request);
+        return request;
+    }
+
+    public static class AbortableClientHttpRequest implements ClientHttpRequest {
+        private final ClientHttpRequest delegate;
+        private final HttpUriRequest httpRequest;
+        @Nullable
+        private final RequestConfig defaults;
+
+        public AbortableClientHttpRequest(ClientHttpRequest delegate, HttpUriRequest httpRequest) {
+            this(delegate, httpRequest, null);
+        }
+
+        public AbortableClientHttpRequest(ClientHttpRequest delegate, HttpUriRequest httpRequest,
+                                          @Nullable RequestConfig defaults) {
+            this.delegate = delegate;
+            this.httpRequest = httpRequest;
+            this.defaults = defaults;
+        }
+
+        public void abort() {
+            httpRequest.abort();
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            clampToDeadline();
+            return delegate.execute();
+        }
+
+        private void clampToDeadline() {
+            String timeout = getHeaders().getFirst(BaseClient.REQUEST_TIMEOUT_HEADER);
+            if (timeout == null || !timeout.matches("\\d{1,9}") || !(httpRequest instanceof HttpRequestBase)) {
+                return;
+            }
+            int deadline = Math.max(1, Integer.parseInt(timeout));
+            RequestConfig config = defaults != null ? defaults : RequestConfig.DEFAULT;
+            ((HttpRequestBase) httpRequest).setConfig(RequestConfig.copy(config)
+                    .setConnectTimeout(clamp(config.getConnectTimeout(), deadline))
+                    .setSocketTimeout(clamp(config.getSocketTimeout(), deadline))
+                    .build());
+        }
+
+        private static int clamp(int timeout, int deadline) {
+            return timeout > 0 ? Math.min(timeout, deadline) : deadline;
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public String getMethodValue() {
+            return delegate.getMethodValue();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+}
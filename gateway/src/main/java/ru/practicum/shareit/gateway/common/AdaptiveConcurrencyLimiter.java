@@ -0,0 +1,121 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-style limit on in-flight upstream calls of one route, or of all of them. The limit shrinks when the latest
+ * round trip is slower than the long-term average by more than the tolerance, and grows by roughly its square root
+ * otherwise. Lower priorities only get a share of the limit, so they are shed first.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final ConcurrencyLimitSettings properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RequestPriority, Counter> shed = new EnumMap<>(RequestPriority.class);
+    private volatile double limit;
+    private volatile boolean saturated;
+    private double longRtt;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(String route, ConcurrencyLimitSettings properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit() != null ? properties.getInitialLimit() : properties.getMaxLimit();
+        Gauge.builder("gateway.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on in-flight upstream calls")
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("Upstream calls currently in flight")
+                .tag("route", route)
+                .register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            shed.put(priority, Counter.builder("gateway.concurrency.shed")
+                    .description("Requests rejected because the route was at its concurrency limit")
+                    .tag("route", route)
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public boolean tryAcquire(RequestPriority priority) {
+        if (!properties.isEnabled()) {
+            inFlight.incrementAndGet();
+            return true;
+        }
+        int allowed = Math.max(1, (int) (limit * share(priority)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                saturated = true;
+                shed.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSample(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        if (properties.isEnabled()) {
+            update(rttNanos, current);
+        }
+    }
+
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        if (properties.isEnabled()) {
+            synchronized (this) {
+                limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update(long rtt, int current) {
+        samples++;
+        int window = samples <= WARMUP_SAMPLES ? (int) samples : properties.getLongWindow();
+        longRtt += (rtt - longRtt) / window;
+        if (samples <= WARMUP_SAMPLES) {
+            return;
+        }
+        if (longRtt > 2.0 * rtt) {
+            longRtt *= 0.95;
+        }
+        boolean wasSaturated = saturated;
+        saturated = false;
+        if (current < limit / 2 && !wasSaturated) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRtt / rtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        double smoothed = limit * (1 - properties.getSmoothing()) + estimate * properties.getSmoothing();
+        limit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), smoothed));
+    }
+
+    private double share(RequestPriority priority) {
+        switch (priority) {
+            case SHEDDABLE:
+                return properties.getSheddableShare();
+            case NORMAL:
+                return properties.getNormalShare();
+            default:
+                return 1.0;
+        }
+    }
+}
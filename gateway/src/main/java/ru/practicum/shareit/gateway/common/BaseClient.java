@@ -0,0 +1,298 @@
+package ru.practicum.shareit.gateway.common;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.gateway.exception.LoadSheddingException;
+
+public class BaseClient {
+    public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade", "content-length");
+
+    protected final RestTemplate rest;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final AdaptiveConcurrencyLimiter serverConcurrencyLimiter;
+    private final UpstreamTimers upstreamTimers;
+    private final ShadowTraffic shadowTraffic;
+    private final RequestCoalescer requestCoalescer;
+    private final String route;
+    @Nullable
+    private final Duration deadline;
+
+    public BaseClient(RestTemplate rest, UpstreamIsolation isolation, String route) {
+        this.rest = rest;
+        this.circuitBreaker = isolation.circuitBreaker(route);
+        this.bulkhead = isolation.bulkhead(route);
+        this.concurrencyLimiter = isolation.concurrencyLimiter(route);
+        this.serverConcurrencyLimiter = isolation.serverConcurrencyLimiter();
+        this.upstreamTimers = isolation.upstreamTimers(route);
+        this.shadowTraffic = isolation.shadowTraffic();
+        this.requestCoalescer = isolation.requestCoalescer();
+        this.route = route;
+        this.deadline = isolation.deadline(route);
+    }
+
+    protected RequestPriority priority(HttpMethod method, String path) {
+        return method == HttpMethod.GET ? RequestPriority.NORMAL : RequestPriority.CRITICAL;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Time the server is given for the current request: the route's deadline, shortened by the client's own
+     * {@value #REQUEST_TIMEOUT_HEADER}, or {@code null} without a deadline.
+     */
+    @Nullable
+    protected Long requestTimeoutMillis() {
+        return deadline != null ? timeoutMillis(deadline) : null;
+    }
+
+    /**
+     * Admits a request of this route that reaches the server some other way, e.g. inside a batch, at the priority it
+     * would have on its own. An admitted request must be given back with {@link #releaseAdmission()}.
+     */
+    public void admit(HttpMethod method, String path) {
+        acquire(method, path);
+    }
+
+    public void releaseAdmission() {
+        concurrencyLimiter.release();
+        serverConcurrencyLimiter.release();
+    }
+
+    protected ResponseEntity<Object> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected ResponseEntity<Object> get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    protected <T> ResponseEntity<Object> post(String path, T body) {
+        return post(path, null, null, body);
+    }
+
+    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+        return post(path, userId, null, body);
+    }
+
+    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    }
+
+    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+        return put(path, userId, null, body);
+    }
+
+    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    }
+
+    protected <T> ResponseEntity<Object> patch(String path, T body) {
+        return patch(path, null, null, body);
+    }
+
+    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+        return patch(path, userId, null, null);
+    }
+
+    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected ResponseEntity<Object> delete(String path) {
+        return delete(path, null, null);
+    }
+
+    protected ResponseEntity<Object> delete(String path, long userId) {
+        return delete(path, userId, null);
+    }
+
+    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    }
+
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+
+        URI uri = method == HttpMethod.GET ? uri(path, parameters) : null;
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            shareitServerResponse = uri != null
+                    ? requestCoalescer.get(uri, userId,
+                            () -> limitedExchange(method, path, requestEntity, parameters, uri))
+                    : limitedExchange(method, path, requestEntity, parameters, null);
+        } catch (HttpServerErrorException e) {
+            shareitServerResponse = errorResponse(e);
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private URI uri(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
+    /**
+     * Sends the request to the server under the route's and the server-wide concurrency limits, the route's bulkhead
+     * and circuit breaker. A GET that
+     * gets here with its {@code uri} went upstream itself rather than being served from the cache or by a coalesced
+     * request, so it is the one that may be mirrored, with the latency of the upstream call alone.
+     */
+    private <T> ResponseEntity<byte[]> limitedExchange(HttpMethod method, String path, HttpEntity<T> requestEntity,
+                                                       @Nullable Map<String, Object> parameters, @Nullable URI uri) {
+        acquire(method, path);
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<byte[]> response = bulkhead.executeSupplier(() ->
+                    circuitBreaker.executeSupplier(() -> exchange(method, path, requestEntity, parameters)));
+            long elapsed = System.nanoTime() - start;
+            concurrencyLimiter.onSample(elapsed);
+            serverConcurrencyLimiter.onSample(elapsed);
+            upstreamTimers.record(method, response.getStatusCodeValue(), elapsed);
+            mirror(uri, requestEntity, response, elapsed);
+            return response;
+        } catch (HttpServerErrorException e) {
+            long elapsed = System.nanoTime() - start;
+            releaseAdmission();
+            upstreamTimers.record(method, e.getRawStatusCode(), elapsed);
+            mirror(uri, requestEntity, errorResponse(e), elapsed);
+            throw e;
+        } catch (ResourceAccessException e) {
+            concurrencyLimiter.onDropped();
+            serverConcurrencyLimiter.onDropped();
+            upstreamTimers.recordError(method, e, System.nanoTime() - start);
+            throw e;
+        } catch (RuntimeException e) {
+            releaseAdmission();
+            throw e;
+        }
+    }
+
+    private void acquire(HttpMethod method, String path) {
+        RequestPriority priority = priority(method, path);
+        if (!concurrencyLimiter.tryAcquire(priority)) {
+            throw shed(method, path, "Route '" + route + "'", concurrencyLimiter);
+        }
+        if (!serverConcurrencyLimiter.tryAcquire(priority)) {
+            concurrencyLimiter.release();
+            throw shed(method, path, "Server", serverConcurrencyLimiter);
+        }
+    }
+
+    private <T> void mirror(@Nullable URI uri, HttpEntity<T> requestEntity, ResponseEntity<byte[]> response,
+                            long elapsed) {
+        if (uri != null && response.getStatusCode() != HttpStatus.NOT_MODIFIED && shadowTraffic.sample()) {
+            shadowTraffic.mirror(route, uri, requestEntity.getHeaders(), response, elapsed);
+        }
+    }
+
+    private static LoadSheddingException shed(HttpMethod method, String path, String scope,
+                                              AdaptiveConcurrencyLimiter limiter) {
+        return new LoadSheddingException(String.format("%s is at its concurrency limit of %d, shedding %s %s",
+                scope, limiter.getLimit(), method, path));
+    }
+
+    private <T> ResponseEntity<byte[]> exchange(HttpMethod method, String path, HttpEntity<T> requestEntity, @Nullable Map<String, Object> parameters) {
+        try {
+            if (parameters != null) {
+                return rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            }
+            return rest.exchange(path, method, requestEntity, byte[].class);
+        } catch (HttpClientErrorException e) {
+            return errorResponse(e);
+        }
+    }
+
+    private static ResponseEntity<byte[]> errorResponse(HttpStatusCodeException e) {
+        return ResponseEntity.status(e.getStatusCode())
+                .headers(e.getResponseHeaders())
+                .body(e.getResponseBodyAsByteArray());
+    }
+
+    private HttpHeaders defaultHeaders(Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        Long timeout = requestTimeoutMillis();
+        if (timeout != null) {
+            headers.set(REQUEST_TIMEOUT_HEADER, String.valueOf(timeout));
+        }
+        return headers;
+    }
+
+    private static long timeoutMillis(Duration deadline) {
+        long timeout = deadline.toMillis();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            String clientTimeout = ((ServletRequestAttributes) attributes).getRequest().getHeader(REQUEST_TIMEOUT_HEADER);
+            if (clientTimeout != null && clientTimeout.matches("\\d{1,9}")) {
+                timeout = Math.min(timeout, Long.parseLong(clientTimeout));
+            }
+        }
+        return Math.max(1, timeout);
+    }
+
+    static HttpHeaders passThroughHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                    headers.put(name, values);
+                }
+            });
+        }
+        return headers;
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = passThroughHeaders(response.getHeaders());
+        byte[] body = response.getBody();
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(headers);
+
+        if (body != null) {
+            return responseBuilder.body(body);
+        }
+
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.gateway.common;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.AbstractClientHttpResponse;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class BufferedClientHttpResponse extends AbstractClientHttpResponse {
+    private final int rawStatusCode;
+    private final String statusText;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    private BufferedClientHttpResponse(int rawStatusCode, String statusText, HttpHeaders headers, byte[] body) {
+        this.rawStatusCode = rawStatusCode;
+        this.statusText = statusText;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public static BufferedClientHttpResponse of(ClientHttpResponse response) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        return new BufferedClientHttpResponse(
+                response.getRawStatusCode(),
+                response.getStatusText(),
+                HttpHeaders.readOnlyHttpHeaders(headers),
+                StreamUtils.copyToByteArray(response.getBody()));
+    }
+
+    public byte[] getBodyAsByteArray() {
+        return body;
+    }
+
+    @Override
+    public int getRawStatusCode() {
+        return rawStatusCode;
+    }
+
+    @Override
+    public String getStatusText() {
+        return statusText;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public void close() {
+    }
+}
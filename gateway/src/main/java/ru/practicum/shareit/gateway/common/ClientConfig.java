@@ -0,0 +1,74 @@
+package ru.practicum.shareit.gateway.common;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import ru.practicum.shareit.gateway.traffic.TrafficRecorder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(ClientProperties.class)
+public class ClientConfig {
+
+    @Bean
+    public PooledConnectionManager connectionManager(ClientProperties properties) {
+        PooledConnectionManager connectionManager = new PooledConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient httpClient(PooledConnectionManager connectionManager, ClientProperties properties) {
+        long keepAlive = properties.getKeepAlive().toMillis();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .build();
+        HttpClientBuilder builder = HttpClients.custom();
+        if (!properties.isCompression()) {
+            builder.disableContentCompression();
+        }
+        return builder
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public RestTemplateCustomizer clientInterceptors(TrafficRecorder trafficRecorder,
+                                                     NodeRouter nodeRouter,
+                                                     RequestHedger requestHedger,
+                                                     ClientProperties properties) {
+        return restTemplate -> restTemplate.getInterceptors().addAll(List.of(
+                trafficRecorder,
+                nodeRouter,
+                new ConditionalRequestInterceptor(),
+                new RequestCompressionInterceptor(properties),
+                requestHedger));
+    }
+
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient) {
+        return new AbortableClientHttpRequestFactory(httpClient);
+    }
+}
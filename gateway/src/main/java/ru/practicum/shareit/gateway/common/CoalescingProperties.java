@@ -0,0 +1,16 @@
+package ru.practicum.shareit.gateway.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+    private Duration maxWait = Duration.ofSeconds(5);
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.gateway.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import ru.practicum.shareit.common.RequestInflationFilter;
+import ru.practicum.shareit.common.RequestInflationProperties;
+
+@Configuration
+public class CompressionConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "shareit-gateway.request-inflation")
+    public RequestInflationProperties requestInflationProperties() {
+        return new RequestInflationProperties();
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public RequestInflationFilter requestInflationFilter(RequestInflationProperties requestInflationProperties) {
+        return new RequestInflationFilter(requestInflationProperties);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.gateway.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "shareit-gateway.concurrency-limit")
+public class ConcurrencyLimitProperties extends ConcurrencyLimitSettings {
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.gateway.common;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings of an {@link AdaptiveConcurrencyLimiter}, bound per route by {@link ConcurrencyLimitProperties} and for
+ * the whole server by {@link ServerConcurrencyLimitProperties}. Without an initial limit the limiter starts at the
+ * maximum, so it only sheds once the latency it measures has lowered the limit.
+ */
+@Getter
+@Setter
+public class ConcurrencyLimitSettings {
+
+    private boolean enabled = false;
+    private Integer initialLimit;
+    private int minLimit = 5;
+    private int maxLimit = 50;
+    private double rttTolerance = 1.5;
+    private double smoothing = 0.2;
+    private int longWindow = 600;
+    private double backoffRatio = 0.9;
+    private double normalShare = 0.9;
+    private double sheddableShare = 0.5;
+}
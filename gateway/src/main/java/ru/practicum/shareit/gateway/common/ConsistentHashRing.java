@@ -0,0 +1,68 @@
+package ru.practicum.shareit.gateway.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Immutable hash ring with virtual nodes. A key belongs to the first eligible node clockwise from its hash, so taking
+ * a node out only moves the keys it owned, and adding one only takes keys over from its neighbours.
+ */
+public class ConsistentHashRing<T> {
+
+    private final long[] points;
+    private final List<T> owners;
+
+    public ConsistentHashRing(List<T> nodes, Function<T, String> name, int virtualNodes) {
+        List<Object[]> entries = new ArrayList<>(nodes.size() * virtualNodes);
+        for (T node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                entries.add(new Object[]{hash(name.apply(node) + "#" + i), node});
+            }
+        }
+        entries.sort(Comparator.comparingLong(entry -> (Long) entry[0]));
+        this.points = new long[entries.size()];
+        this.owners = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            points[i] = (Long) entries.get(i)[0];
+            @SuppressWarnings("unchecked")
+            T owner = (T) entries.get(i)[1];
+            owners.add(owner);
+        }
+    }
+
+    /**
+     * Returns the owner of the key among eligible nodes, or its natural owner when no node is eligible.
+     */
+    public T route(String key, Predicate<T> eligible) {
+        int start = Arrays.binarySearch(points, hash(key));
+        if (start < 0) {
+            start = -start - 1;
+        }
+        for (int i = 0; i < points.length; i++) {
+            T owner = owners.get((start + i) % points.length);
+            if (eligible.test(owner)) {
+                return owner;
+            }
+        }
+        return owners.get(start % points.length);
+    }
+
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.gateway.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+    private Duration defaultTimeout = Duration.ofSeconds(5);
+    private Map<String, Duration> routes = new HashMap<>();
+}
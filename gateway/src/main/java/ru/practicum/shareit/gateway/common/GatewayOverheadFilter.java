@@ -0,0 +1,52 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class GatewayOverheadFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Tags, Timer> timers = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AtomicLong upstreamNanos = new AtomicLong();
+        request.setAttribute(UpstreamTimers.UPSTREAM_NANOS_ATTRIBUTE, upstreamNanos);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long overhead = Math.max(0, System.nanoTime() - start - upstreamNanos.get());
+            Tags tags = Tags.of(WebMvcTags.uri(request, response), WebMvcTags.method(request),
+                    WebMvcTags.outcome(response));
+            timers.computeIfAbsent(tags, key -> Timer.builder("gateway.overhead")
+                            .description("Time spent handling a request in the gateway, excluding upstream calls")
+                            .tags(key)
+                            .register(meterRegistry))
+                    .record(overhead, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.gateway.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = false;
+    private double percentile = 0.95;
+    private int minSamples = 50;
+    private Duration minDelay = Duration.ofMillis(20);
+    private Duration maxDelay = Duration.ofSeconds(1);
+    private double budgetRatio = 0.05;
+    private int budgetBurst = 10;
+    private int maxAttempts = 3;
+    private Duration retryBackoff = Duration.ofMillis(50);
+    private Duration retryMaxBackoff = Duration.ofMillis(500);
+}
@@ -0,0 +1,186 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Sends each upstream request to one of the configured server nodes by consistent hashing on the item ID for item
+ * routes and on the user otherwise, so every node keeps serving the same keys. Nodes are ejected after failing
+ * active health checks or several proxied requests in a row and readmitted once the ejection time is over.
+ * {@link RequestHedger} sends its hedge to {@link #alternate the next node} on the ring, which is where the key would
+ * move if its node were ejected.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(NodeRoutingProperties.class)
+public class NodeRouter implements ClientHttpRequestInterceptor, DisposableBean {
+    private static final Pattern ITEM_PATH = Pattern.compile("^/items/(\\d+)");
+
+    private final NodeRoutingProperties properties;
+    private final List<Node> nodes;
+    private final ConsistentHashRing<Node> ring;
+    private final ScheduledExecutorService healthChecker;
+    private final SimpleClientHttpRequestFactory healthRequestFactory = new SimpleClientHttpRequestFactory();
+
+    public NodeRouter(NodeRoutingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.nodes = properties.getNodes().stream()
+                .map(uri -> new Node(uri, meterRegistry))
+                .collect(Collectors.toList());
+        this.ring = new ConsistentHashRing<>(nodes, node -> node.uri.toString(), properties.getVirtualNodes());
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-node-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!nodes.isEmpty()) {
+            int timeout = (int) properties.getHealthTimeout().toMillis();
+            healthRequestFactory.setConnectTimeout(timeout);
+            healthRequestFactory.setReadTimeout(timeout);
+            Gauge.builder("gateway.nodes.available", this, router -> router.nodes.stream().filter(Node::isAvailable).count())
+                    .description("Server nodes currently receiving traffic")
+                    .register(meterRegistry);
+            long interval = properties.getHealthInterval().toMillis();
+            healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (nodes.isEmpty()) {
+            return execution.execute(request, body);
+        }
+        Node node = ring.route(key(request), Node::isAvailable);
+        URI uri = on(node, request.getURI());
+        HttpRequest routed = new HttpRequestWrapper(request) {
+            @Override
+            public URI getURI() {
+                return uri;
+            }
+        };
+        try {
+            ClientHttpResponse response = execution.execute(routed, body);
+            if (response.getRawStatusCode() == 502 || response.getRawStatusCode() == 503) {
+                failed(node, "responded with " + response.getRawStatusCode());
+            } else {
+                node.failures.set(0);
+            }
+            return response;
+        } catch (IOException e) {
+            failed(node, e.toString());
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        healthChecker.shutdownNow();
+    }
+
+    /**
+     * Returns the URI of the routed request on the next available node clockwise from the one it was routed to, or its
+     * own URI when it went to no configured node or no other node is available.
+     */
+    public URI alternate(HttpRequest request) {
+        URI uri = request.getURI();
+        Node routed = nodes.stream()
+                .filter(node -> node.uri.getHost().equals(uri.getHost()) && node.uri.getPort() == uri.getPort())
+                .findFirst()
+                .orElse(null);
+        if (routed == null) {
+            return uri;
+        }
+        Node next = ring.route(key(request), node -> node != routed && node.isAvailable());
+        return next != routed && next.isAvailable() ? on(next, uri) : uri;
+    }
+
+    private static URI on(Node node, URI uri) {
+        return UriComponentsBuilder.fromUri(uri)
+                .scheme(node.uri.getScheme())
+                .host(node.uri.getHost())
+                .port(node.uri.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private static String key(HttpRequest request) {
+        Matcher item = ITEM_PATH.matcher(request.getURI().getPath());
+        if (item.find()) {
+            return "item:" + item.group(1);
+        }
+        String userId = request.getHeaders().getFirst("X-Sharer-User-Id");
+        return userId != null ? "user:" + userId : request.getURI().getPath();
+    }
+
+    private void failed(Node node, String reason) {
+        if (node.failures.incrementAndGet() >= properties.getFailureThreshold()) {
+            eject(node, reason);
+        }
+    }
+
+    private void eject(Node node, String reason) {
+        if (node.isAvailable()) {
+            log.warn("Ejecting server node {} for {}: {}", node.uri, properties.getEjectionTime(), reason);
+            node.ejections.increment();
+        }
+        node.failures.set(0);
+        node.ejectedUntil = System.nanoTime() + properties.getEjectionTime().toNanos();
+    }
+
+    private void checkHealth() {
+        for (Node node : nodes) {
+            URI health = UriComponentsBuilder.fromUri(node.uri).path(properties.getHealthPath()).build().toUri();
+            try (ClientHttpResponse response = healthRequestFactory.createRequest(health, HttpMethod.GET).execute()) {
+                if (response.getRawStatusCode() != 200) {
+                    eject(node, "health check responded with " + response.getRawStatusCode());
+                }
+            } catch (IOException e) {
+                eject(node, "health check failed with " + e);
+            }
+        }
+    }
+
+    private static class Node {
+        private final URI uri;
+        private final AtomicInteger failures = new AtomicInteger();
+        private final Counter ejections;
+        private volatile long ejectedUntil = System.nanoTime();
+
+        Node(URI uri, MeterRegistry meterRegistry) {
+            this.uri = uri;
+            this.ejections = Counter.builder("gateway.nodes.ejections")
+                    .description("Times a server node was taken out of rotation")
+                    .tag("node", uri.toString())
+                    .register(meterRegistry);
+        }
+
+        boolean isAvailable() {
+            return System.nanoTime() - ejectedUntil >= 0;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.gateway.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.routing")
+public class NodeRoutingProperties {
+
+    private List<URI> nodes = new ArrayList<>();
+    private int virtualNodes = 160;
+    private String healthPath = "/actuator/health";
+    private Duration healthInterval = Duration.ofSeconds(5);
+    private Duration healthTimeout = Duration.ofSeconds(1);
+    private int failureThreshold = 5;
+    private Duration ejectionTime = Duration.ofSeconds(30);
+}
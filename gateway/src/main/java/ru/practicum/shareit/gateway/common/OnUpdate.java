@@ -0,0 +1,4 @@
+package ru.practicum.shareit.gateway.common;
+
+public interface OnUpdate {
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.gateway.common;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.gateway.exception.RateLimitExceededException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String READ_LIMIT = "read";
+    private static final String WRITE_LIMIT = "write";
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        String userId = request.getHeader("X-Sharer-User-Id");
+        acquire((HandlerMethod) handler, request.getMethod(), userId != null ? userId : request.getRemoteAddr());
+        return true;
+    }
+
+    public void acquire(HandlerMethod handler, String method, String client) {
+        RateLimit rateLimit = handler.getMethodAnnotation(RateLimit.class);
+        String limitName;
+        if (rateLimit != null) {
+            limitName = rateLimit.value();
+        } else {
+            limitName = HttpMethod.GET.matches(method) ? READ_LIMIT : WRITE_LIMIT;
+        }
+        long waitNanos = rateLimiter.tryAcquire(limitName, client);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new RateLimitExceededException("Rate limit '" + limitName + "' exceeded", retryAfter);
+        }
+    }
+}
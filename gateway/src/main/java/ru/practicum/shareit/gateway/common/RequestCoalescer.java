@@ -0,0 +1,98 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Lets identical concurrent GETs share one upstream call. {@link BaseClient} coalesces before admission control, so
+ * only the leader takes a concurrency limit and bulkhead slot; followers wait for its response without one.
+ */
+@Component
+@EnableConfigurationProperties(CoalescingProperties.class)
+public class RequestCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long maxWaitMillis;
+    private final Counter coalesced;
+    private final Counter timedOut;
+
+    public RequestCoalescer(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maxWaitMillis = properties.getMaxWait().toMillis();
+        this.coalesced = Counter.builder("gateway.coalescing.requests")
+                .description("Identical GET requests that waited for an in-flight request")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("gateway.coalescing.requests")
+                .description("Identical GET requests that waited for an in-flight request")
+                .tag("result", "timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the GET {@code exchange} for {@code uri}, or waits for an identical one already in flight and returns its
+     * response or rethrows its failure. A follower that waits longer than the max wait runs {@code exchange} itself.
+     */
+    public ResponseEntity<byte[]> get(URI uri, @Nullable Long userId, Supplier<ResponseEntity<byte[]>> exchange) {
+        if (!enabled) {
+            return exchange.get();
+        }
+        String key = key(uri, userId);
+        CompletableFuture<ResponseEntity<byte[]>> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return await(leader, uri, exchange);
+        }
+        try {
+            ResponseEntity<byte[]> response = exchange.get();
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private ResponseEntity<byte[]> await(CompletableFuture<ResponseEntity<byte[]>> leader, URI uri,
+                                         Supplier<ResponseEntity<byte[]>> exchange) {
+        try {
+            ResponseEntity<byte[]> response = leader.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            coalesced.increment();
+            return response;
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            return exchange.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String message = "Interrupted while waiting for coalesced request to " + uri;
+            throw new ResourceAccessException(message, new InterruptedIOException(message));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static String key(URI uri, @Nullable Long userId) {
+        return uri + " " + userId + " " + ConditionalRequestInterceptor.clientIfNoneMatch();
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.gateway.common;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import ru.practicum.shareit.common.RequestInflationFilter;
+
+import java.io.IOException;
+
+public class RequestCompressionInterceptor implements ClientHttpRequestInterceptor {
+
+    private final boolean enabled;
+    private final int level;
+    private final long minSize;
+
+    public RequestCompressionInterceptor(ClientProperties properties) {
+        this.enabled = properties.isCompression();
+        this.level = properties.getRequestCompressionLevel();
+        this.minSize = properties.getRequestCompressionMinSize().toBytes();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!enabled || body.length < minSize || request.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return execution.execute(request, body);
+        }
+        request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return execution.execute(request, RequestInflationFilter.gzip(body, level));
+    }
+}
@@ -0,0 +1,372 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.VirtualThreadProperties;
+import ru.practicum.shareit.common.VirtualThreads;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sends GETs on the calling thread and, when one is still pending after the route's hedge delay, sends a duplicate
+ * from a hedge thread to the next node on the ring, as the node the first attempt went to may be the slow part. The
+ * first answer that is not a 5xx wins and the other attempt is aborted. The hedge budget keeps duplicates to a share
+ * of all reads.
+ */
+@Component
+@Profile("!reactive")
+@EnableConfigurationProperties(HedgingProperties.class)
+public class RequestHedger implements ClientHttpRequestInterceptor, DisposableBean {
+    private static final int WINDOW_SIZE = 256;
+    private static final long HEDGE_COST = 1000;
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long NO_DEADLINE = Long.MIN_VALUE;
+
+    private final ClientHttpRequestFactory requestFactory;
+    private final NodeRouter nodeRouter;
+    private final HedgingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final ScheduledThreadPoolExecutor timer;
+    private final ConcurrentMap<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong budget = new AtomicLong();
+    private final long budgetDeposit;
+    private final long budgetLimit;
+    private final Counter hedged;
+    private final Counter retried;
+
+    public RequestHedger(ClientHttpRequestFactory requestFactory, NodeRouter nodeRouter, HedgingProperties properties,
+                         VirtualThreadProperties virtualThreads, MeterRegistry meterRegistry) {
+        this.requestFactory = requestFactory;
+        this.nodeRouter = nodeRouter;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.budgetDeposit = (long) (properties.getBudgetRatio() * HEDGE_COST);
+        this.budgetLimit = properties.getBudgetBurst() * HEDGE_COST;
+        this.executor = virtualThreads.isEnabled() ? VirtualThreads.newThreadPerTaskExecutor() : newHedgeExecutor();
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "gateway-hedge-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.hedged = Counter.builder("gateway.hedging.requests")
+                .description("Upstream GET attempts made by the hedger in addition to the first one")
+                .tag("type", "hedge")
+                .register(meterRegistry);
+        this.retried = Counter.builder("gateway.hedging.requests")
+                .description("Upstream GET attempts made by the hedger in addition to the first one")
+                .tag("type", "retry")
+                .register(meterRegistry);
+    }
+
+    private static ExecutorService newHedgeExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-hedge-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return execution.execute(request, body);
+        }
+        LatencyWindow window = windows.computeIfAbsent(route(request.getURI()), this::newWindow);
+        deposit();
+        HedgedRequest hedgedRequest = new HedgedRequest(request, window, deadline(request));
+        ScheduledFuture<?> hedgeTimer = timer.schedule(hedgedRequest::hedge, window.hedgeDelayMillis(),
+                TimeUnit.MILLISECONDS);
+        BufferedClientHttpResponse response;
+        try {
+            response = send(request, request.getURI(), window, hedgedRequest.deadline, hedgedRequest.primary);
+        } catch (IOException e) {
+            hedgeTimer.cancel(false);
+            return hedgedRequest.afterPrimaryFailed(null, e);
+        }
+        hedgeTimer.cancel(false);
+        if (isServerError(response)) {
+            return hedgedRequest.afterPrimaryFailed(response, null);
+        }
+        hedgedRequest.cancelHedge();
+        return response;
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private BufferedClientHttpResponse send(HttpRequest request, URI uri, LatencyWindow window, long deadline,
+                                            Attempt attempt) throws IOException {
+        for (int tries = 1; ; tries++) {
+            long start = System.nanoTime();
+            try {
+                ClientHttpRequest upstream = requestFactory.createRequest(uri, request.getMethod());
+                upstream.getHeaders().putAll(request.getHeaders());
+                if (deadline != NO_DEADLINE) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - start);
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException("Deadline of " + uri + " has passed");
+                    }
+                    upstream.getHeaders().set(BaseClient.REQUEST_TIMEOUT_HEADER, String.valueOf(remaining));
+                }
+                attempt.start(upstream);
+                try (ClientHttpResponse response = upstream.execute()) {
+                    BufferedClientHttpResponse buffered = BufferedClientHttpResponse.of(response);
+                    window.record(System.nanoTime() - start);
+                    return buffered;
+                }
+            } catch (ConnectException | ConnectTimeoutException | NoHttpResponseException e) {
+                if (tries >= properties.getMaxAttempts() || attempt.isAborted()) {
+                    throw e;
+                }
+                retried.increment();
+                backoff(tries);
+            }
+        }
+    }
+
+    private static long deadline(HttpRequest request) {
+        String timeout = request.getHeaders().getFirst(BaseClient.REQUEST_TIMEOUT_HEADER);
+        if (timeout == null || !timeout.matches("\\d{1,9}")) {
+            return NO_DEADLINE;
+        }
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Long.parseLong(timeout));
+    }
+
+    private void backoff(int attempt) throws InterruptedIOException {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffCapMillis(attempt) + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during retry backoff");
+        }
+    }
+
+    long backoffCapMillis(int attempt) {
+        long base = properties.getRetryBackoff().toMillis();
+        return Math.min(properties.getRetryMaxBackoff().toMillis(), base << Math.min(attempt - 1, 16));
+    }
+
+    private void deposit() {
+        long current;
+        do {
+            current = budget.get();
+            if (current >= budgetLimit) {
+                return;
+            }
+        } while (!budget.compareAndSet(current, Math.min(budgetLimit, current + budgetDeposit)));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - HEDGE_COST));
+        return true;
+    }
+
+    private LatencyWindow newWindow(String route) {
+        LatencyWindow window = new LatencyWindow();
+        Gauge.builder("gateway.hedging.delay", window, LatencyWindow::hedgeDelayMillis)
+                .description("Delay after which a GET to the route is hedged")
+                .baseUnit("milliseconds")
+                .tag("route", route)
+                .register(meterRegistry);
+        return window;
+    }
+
+    private static String route(URI uri) {
+        String path = uri.getPath();
+        int end = path.indexOf('/', 1);
+        return end > 0 ? path.substring(1, end) : path.substring(Math.min(1, path.length()));
+    }
+
+    private static boolean isServerError(ClientHttpResponse response) throws IOException {
+        return response.getRawStatusCode() >= 500;
+    }
+
+    /**
+     * The two attempts of one GET. The primary runs on the caller's thread, the hedge on the executor once the
+     * timer fires.
+     */
+    private class HedgedRequest {
+        private final HttpRequest request;
+        private final LatencyWindow window;
+        private final long deadline;
+        private final Attempt primary = new Attempt();
+        private final Attempt hedge = new Attempt();
+        private final CompletableFuture<BufferedClientHttpResponse> hedgeResponse = new CompletableFuture<>();
+        private boolean primaryDone;
+        private boolean hedgeSent;
+
+        HedgedRequest(HttpRequest request, LatencyWindow window, long deadline) {
+            this.request = request;
+            this.window = window;
+            this.deadline = deadline;
+        }
+
+        void hedge() {
+            synchronized (this) {
+                if (primaryDone || !withdraw()) {
+                    return;
+                }
+                hedgeSent = true;
+            }
+            hedged.increment();
+            executor.execute(() -> {
+                try {
+                    BufferedClientHttpResponse response = send(request, nodeRouter.alternate(request), window,
+                            deadline, hedge);
+                    hedgeResponse.complete(response);
+                    if (!isServerError(response)) {
+                        primary.abort();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    hedgeResponse.completeExceptionally(e);
+                }
+            });
+        }
+
+        /**
+         * The primary ended with a 5xx or an error, possibly because a successful hedge aborted it. Answers with the
+         * hedge when one was sent and did better, otherwise with the primary's own outcome.
+         */
+        ClientHttpResponse afterPrimaryFailed(@Nullable BufferedClientHttpResponse response,
+                                              @Nullable IOException error) throws IOException {
+            synchronized (this) {
+                primaryDone = true;
+                if (!hedgeSent) {
+                    return primaryOutcome(response, error);
+                }
+            }
+            try {
+                BufferedClientHttpResponse hedgeResult = hedgeResponse.get();
+                return !isServerError(hedgeResult) || response == null ? hedgeResult : response;
+            } catch (ExecutionException e) {
+                return primaryOutcome(response, error);
+            } catch (InterruptedException e) {
+                hedge.abort();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + request.getURI());
+            }
+        }
+
+        void cancelHedge() {
+            synchronized (this) {
+                primaryDone = true;
+            }
+            hedge.abort();
+        }
+
+        private ClientHttpResponse primaryOutcome(@Nullable BufferedClientHttpResponse response,
+                                                  @Nullable IOException error) throws IOException {
+            if (response != null) {
+                return response;
+            }
+            throw Objects.requireNonNull(error);
+        }
+    }
+
+    /**
+     * The upstream request currently sent by one attempt, kept so that the other attempt can abort it.
+     */
+    private static class Attempt {
+        private ClientHttpRequest current;
+        private boolean aborted;
+
+        synchronized void start(ClientHttpRequest request) throws IOException {
+            if (aborted) {
+                throw new InterruptedIOException("Attempt to " + request.getURI() + " was aborted");
+            }
+            current = request;
+        }
+
+        synchronized void abort() {
+            aborted = true;
+            if (current instanceof AbortableClientHttpRequestFactory.AbortableClientHttpRequest) {
+                ((AbortableClientHttpRequestFactory.AbortableClientHttpRequest) current).abort();
+            }
+        }
+
+        synchronized boolean isAborted() {
+            return aborted;
+        }
+    }
+
+    private class LatencyWindow {
+        private final AtomicLongArray samples = new AtomicLongArray(WINDOW_SIZE);
+        private final AtomicLong recorded = new AtomicLong();
+        private volatile long delayMillis = properties.getMaxDelay().toMillis();
+        private volatile long refreshedAt = System.nanoTime();
+
+        void record(long nanos) {
+            samples.set((int) (recorded.getAndIncrement() % WINDOW_SIZE), nanos);
+        }
+
+        long hedgeDelayMillis() {
+            long now = System.nanoTime();
+            if (now - refreshedAt > REFRESH_NANOS) {
+                refreshedAt = now;
+                delayMillis = computeDelayMillis();
+            }
+            return delayMillis;
+        }
+
+        private long computeDelayMillis() {
+            int count = (int) Math.min(recorded.get(), WINDOW_SIZE);
+            if (count < properties.getMinSamples()) {
+                return properties.getMaxDelay().toMillis();
+            }
+            long[] sorted = new long[count];
+            for (int i = 0; i < count; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            long percentile = TimeUnit.NANOSECONDS.toMillis(sorted[(int) Math.ceil(properties.getPercentile() * count) - 1]);
+            return Math.max(properties.getMinDelay().toMillis(), Math.min(properties.getMaxDelay().toMillis(), percentile));
+        }
+    }
+}
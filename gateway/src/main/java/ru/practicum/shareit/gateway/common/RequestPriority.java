@@ -0,0 +1,7 @@
+package ru.practicum.shareit.gateway.common;
+
+public enum RequestPriority {
+    CRITICAL,
+    NORMAL,
+    SHEDDABLE
+}
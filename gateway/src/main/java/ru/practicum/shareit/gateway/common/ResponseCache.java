@@ -0,0 +1,158 @@
+package ru.practicum.shareit.gateway.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Caches successful GET responses per entity, id and user. Entries are indexed by entity and id, so evicting an item
+ * or all items touches only their own entries instead of scanning the whole cache. Stripe versions keep a response
+ * that was loaded while its entity was being evicted out of the cache.
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@Slf4j
+public class ResponseCache {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String REQUESTS = "requests";
+
+    private static final int STRIPES = 64;
+
+    private final Cache<Key, ResponseEntity<Object>> cache;
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+    private final ConcurrentMap<String, ConcurrentMap<Long, Set<Key>>> index = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public ResponseCache(ResponseCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .evictionListener((Key key, ResponseEntity<Object> response, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+    }
+
+    public ResponseEntity<Object> get(String entity, long id, @Nullable Long userId,
+                                      Supplier<ResponseEntity<Object>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(entity, id, userId);
+        ResponseEntity<Object> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(entity, id);
+        long version = versions.get(stripe);
+        ResponseEntity<Object> response = loader.get();
+        if (response.getStatusCode().is2xxSuccessful() && versions.get(stripe) == version) {
+            cache.put(key, response);
+            index(key);
+            if (versions.get(stripe) != version) {
+                cache.invalidate(key);
+            }
+        }
+        return response;
+    }
+
+    public void evict(String entity, long id) {
+        if (!enabled) {
+            return;
+        }
+        versions.incrementAndGet(stripe(entity, id));
+        ConcurrentMap<Long, Set<Key>> entries = index.get(entity);
+        Set<Key> keys = entries != null ? entries.remove(id) : null;
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    public void evictAll(String entity) {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        ConcurrentMap<Long, Set<Key>> entries = index.remove(entity);
+        if (entries != null) {
+            entries.values().forEach(cache::invalidateAll);
+        }
+    }
+
+    public void evictReferenced(String entity, ResponseEntity<Object> response, String... fieldPath) {
+        if (!enabled || !response.getStatusCode().is2xxSuccessful() || !(response.getBody() instanceof byte[])) {
+            return;
+        }
+        try {
+            JsonNode node = objectMapper.readTree((byte[]) response.getBody());
+            for (String field : fieldPath) {
+                node = node.path(field);
+            }
+            if (node.canConvertToLong()) {
+                evict(entity, node.asLong());
+            }
+        } catch (IOException e) {
+            log.warn("Couldn't read referenced " + entity + " from response, evicting all entries", e);
+            evictAll(entity);
+        }
+    }
+
+    private void index(Key key) {
+        index.computeIfAbsent(key.getEntity(), entity -> new ConcurrentHashMap<>())
+                .compute(key.getId(), (id, keys) -> {
+                    Set<Key> indexed = keys != null ? keys : new HashSet<>();
+                    indexed.add(key);
+                    return indexed;
+                });
+    }
+
+    /**
+     * Drops a key that the cache evicted on its own, for size or age. Runs atomically with the eviction, so a response
+     * cached again under the same key afterwards stays indexed.
+     */
+    private void unindex(Key key) {
+        ConcurrentMap<Long, Set<Key>> entries = index.get(key.getEntity());
+        if (entries != null) {
+            entries.computeIfPresent(key.getId(), (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static int stripe(String entity, long id) {
+        return Math.floorMod(Objects.hash(entity, id), STRIPES);
+    }
+
+    @Value
+    private static class Key {
+        String entity;
+        long id;
+        Long userId;
+    }
+}
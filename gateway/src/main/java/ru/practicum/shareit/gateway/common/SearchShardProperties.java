@@ -0,0 +1,20 @@
+package ru.practicum.shareit.gateway.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.search-shards")
+public class SearchShardProperties {
+
+    private List<URI> shards = new ArrayList<>();
+    private Duration timeout = Duration.ofSeconds(2);
+    private int maxWindow = 10000;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.gateway.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the limit on all in-flight upstream calls, whatever their route. Its priority shares rank requests of
+ * different routes against each other, so search is shed before the server is too busy to take writes.
+ */
+@ConfigurationProperties(prefix = "shareit-gateway.server-concurrency-limit")
+public class ServerConcurrencyLimitProperties extends ConcurrencyLimitSettings {
+
+    public ServerConcurrencyLimitProperties() {
+        setMinLimit(10);
+        setMaxLimit(100);
+    }
+}
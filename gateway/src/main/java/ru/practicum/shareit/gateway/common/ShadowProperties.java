@@ -0,0 +1,20 @@
+package ru.practicum.shareit.gateway.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.shadow")
+public class ShadowProperties {
+
+    private boolean enabled = false;
+    private URI url;
+    private double sampleRate = 0.01;
+    private int maxConcurrent = 16;
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.gateway.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mirrors a sample of proxied GETs to a candidate server build and compares its responses with the live ones.
+ * Mirroring has its own connection pool and threads and is dropped rather than queued when they are busy, so it
+ * cannot slow down the live request. Besides the latency of each side, the difference of every mirrored pair is
+ * recorded, split by which side was slower, since the two latency distributions alone can hide per-request
+ * regressions.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ShadowProperties.class)
+public class ShadowTraffic implements DisposableBean {
+
+    private final ShadowProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ConcurrentMap<String, Counter> results = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> latencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> differences = new ConcurrentHashMap<>();
+    private CloseableHttpClient httpClient;
+    private HttpComponentsClientHttpRequestFactory requestFactory;
+    private ThreadPoolExecutor executor;
+
+    public ShadowTraffic(ShadowProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.enabled = properties.isEnabled() && properties.getUrl() != null;
+        if (properties.isEnabled() && !enabled) {
+            log.warn("Shadow traffic is enabled but shareit-gateway.shadow.url is not set, not mirroring");
+        }
+        if (enabled) {
+            int timeout = (int) properties.getTimeout().toMillis();
+            this.httpClient = HttpClients.custom()
+                    .setMaxConnTotal(properties.getMaxConcurrent())
+                    .setMaxConnPerRoute(properties.getMaxConcurrent())
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectTimeout(timeout)
+                            .setSocketTimeout(timeout)
+                            .setConnectionRequestTimeout(timeout)
+                            .build())
+                    .build();
+            this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+            AtomicInteger threads = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(0, properties.getMaxConcurrent(), 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "gateway-shadow-" + threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    public boolean sample() {
+        return enabled && ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+    }
+
+    public void mirror(String route, URI uri, HttpHeaders headers, ResponseEntity<byte[]> primary, long primaryNanos) {
+        URI shadowUri = UriComponentsBuilder.fromUri(uri)
+                .scheme(properties.getUrl().getScheme())
+                .host(properties.getUrl().getHost())
+                .port(properties.getUrl().getPort())
+                .build(true)
+                .toUri();
+        try {
+            executor.execute(() -> send(route, shadowUri, headers, primary, primaryNanos));
+        } catch (RejectedExecutionException e) {
+            result(route, "dropped").increment();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (enabled) {
+            executor.shutdownNow();
+            httpClient.close();
+        }
+    }
+
+    private void send(String route, URI uri, HttpHeaders headers, ResponseEntity<byte[]> primary, long primaryNanos) {
+        long start = System.nanoTime();
+        try {
+            ClientHttpRequest request = requestFactory.createRequest(uri, HttpMethod.GET);
+            request.getHeaders().putAll(headers);
+            try (ClientHttpResponse response = request.execute()) {
+                byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                long shadowNanos = System.nanoTime() - start;
+                latency(route, "shadow").record(shadowNanos, TimeUnit.NANOSECONDS);
+                latency(route, "primary").record(primaryNanos, TimeUnit.NANOSECONDS);
+                recordDifference(route, shadowNanos - primaryNanos);
+                if (response.getRawStatusCode() != primary.getStatusCodeValue()) {
+                    result(route, "status-mismatch").increment();
+                } else if (!sameBody(primary.getBody(), body)) {
+                    result(route, "body-mismatch").increment();
+                    log.debug("Shadow response of {} differs from the live one", uri);
+                } else {
+                    result(route, "match").increment();
+                }
+            }
+        } catch (IOException e) {
+            result(route, "error").increment();
+        }
+    }
+
+    private boolean sameBody(byte[] primaryBody, byte[] shadowBody) {
+        if (Arrays.equals(primaryBody == null ? new byte[0] : primaryBody, shadowBody)) {
+            return true;
+        }
+        try {
+            return tree(primaryBody).equals(tree(shadowBody));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private JsonNode tree(byte[] body) throws IOException {
+        if (body == null || body.length == 0) {
+            return MissingNode.getInstance();
+        }
+        return jsonMapper.readTree(body);
+    }
+
+    private Counter result(String route, String result) {
+        return results.computeIfAbsent(route + " " + result, key -> Counter.builder("gateway.shadow.responses")
+                .description("Mirrored GETs by how the candidate server's response compared with the live one")
+                .tag("route", route)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Records shadow minus primary latency in milliseconds. Distribution summaries drop negative amounts, so a shadow
+     * that was faster is recorded under its own tag with the amount it was faster by.
+     */
+    private void recordDifference(String route, long nanos) {
+        String shadow = nanos > 0 ? "slower" : "faster";
+        differences.computeIfAbsent(route + " " + shadow, key -> DistributionSummary
+                        .builder("gateway.shadow.latency.difference")
+                        .description("Per-request latency of the candidate server minus that of the live one")
+                        .baseUnit("milliseconds")
+                        .tag("route", route)
+                        .tag("shadow", shadow)
+                        .register(meterRegistry))
+                .record(Math.abs(nanos) / 1_000_000.0);
+    }
+
+    private Timer latency(String route, String target) {
+        return latencies.computeIfAbsent(route + " " + target, key -> Timer.builder("gateway.shadow.latency")
+                .description("Latency of mirrored GETs on the live and the candidate server")
+                .tag("route", route)
+                .tag("target", target)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.gateway.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class TokenBucketRateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final Map<String, Bucket> limits = new HashMap<>();
+    private final boolean enabled;
+
+    public TokenBucketRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        properties.getLimits().forEach((name, limit) -> limits.put(name, new Bucket(limit, Counter
+                .builder("gateway.rate-limit.rejected")
+                .description("Requests rejected because the client exceeded its rate limit")
+                .tag("limit", name)
+                .register(meterRegistry))));
+    }
+
+    public long tryAcquire(String limitName, String client) {
+        Bucket bucket = limits.get(limitName);
+        if (!enabled || bucket == null) {
+            return 0;
+        }
+        AtomicLong theoreticalArrival = buckets.get(limitName + ":" + client, key -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long base = Math.max(current, now);
+            long waitNanos = base - bucket.tolerance - now;
+            if (waitNanos > 0) {
+                bucket.rejected.increment();
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, base + bucket.interval)) {
+                return 0;
+            }
+        }
+    }
+
+    private static class Bucket {
+        private final long interval;
+        private final long tolerance;
+        private final Counter rejected;
+
+        Bucket(RateLimitProperties.Limit limit, Counter rejected) {
+            this.interval = (long) (1_000_000_000L / limit.getRefillPerSecond());
+            this.tolerance = interval * (Math.max(limit.getCapacity(), 1) - 1);
+            this.rejected = rejected;
+        }
+    }
+}
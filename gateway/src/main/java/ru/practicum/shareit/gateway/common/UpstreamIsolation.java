@@ -0,0 +1,76 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties({ConcurrencyLimitProperties.class, ServerConcurrencyLimitProperties.class,
+        DeadlineProperties.class})
+public class UpstreamIsolation {
+    private static final String SERVER = "server";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private final ServerConcurrencyLimitProperties serverConcurrencyLimitProperties;
+    private final DeadlineProperties deadlineProperties;
+    private final ShadowTraffic shadowTraffic;
+    private final RequestCoalescer requestCoalescer;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, UpstreamTimers> upstreamTimers = new ConcurrentHashMap<>();
+
+    public CircuitBreaker circuitBreaker(String route) {
+        return circuitBreakerRegistry.circuitBreaker(route);
+    }
+
+    public Bulkhead bulkhead(String route) {
+        return bulkheadRegistry.bulkhead(route);
+    }
+
+    public AdaptiveConcurrencyLimiter concurrencyLimiter(String route) {
+        return concurrencyLimiters.computeIfAbsent(route,
+                name -> new AdaptiveConcurrencyLimiter(name, concurrencyLimitProperties, meterRegistry));
+    }
+
+    /**
+     * The limiter every upstream call takes a permit of along with its route's, so requests of all routes compete
+     * for one budget at their priorities.
+     */
+    public AdaptiveConcurrencyLimiter serverConcurrencyLimiter() {
+        return concurrencyLimiters.computeIfAbsent(SERVER,
+                name -> new AdaptiveConcurrencyLimiter(name, serverConcurrencyLimitProperties, meterRegistry));
+    }
+
+    public UpstreamTimers upstreamTimers(String route) {
+        return upstreamTimers.computeIfAbsent(route, name -> new UpstreamTimers(name, meterRegistry));
+    }
+
+    public ShadowTraffic shadowTraffic() {
+        return shadowTraffic;
+    }
+
+    public RequestCoalescer requestCoalescer() {
+        return requestCoalescer;
+    }
+
+    @Nullable
+    public Duration deadline(String route) {
+        if (!deadlineProperties.isEnabled()) {
+            return null;
+        }
+        return deadlineProperties.getRoutes().getOrDefault(route, deadlineProperties.getDefaultTimeout());
+    }
+}
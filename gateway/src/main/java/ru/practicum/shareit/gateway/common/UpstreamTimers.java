@@ -0,0 +1,57 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times upstream calls of one route and adds them to the current request's upstream total, which
+ * {@link GatewayOverheadFilter} subtracts to get the time spent in the gateway itself.
+ */
+public class UpstreamTimers {
+    static final String UPSTREAM_NANOS_ATTRIBUTE = UpstreamTimers.class.getName() + ".upstreamNanos";
+
+    private final String route;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public UpstreamTimers(String route, MeterRegistry meterRegistry) {
+        this.route = route;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(HttpMethod method, int status, long nanos) {
+        record(method, String.valueOf(status), Outcome.forStatus(status).name(), "none", nanos);
+    }
+
+    public void recordError(HttpMethod method, Exception exception, long nanos) {
+        record(method, "IO_ERROR", Outcome.UNKNOWN.name(), exception.getClass().getSimpleName(), nanos);
+    }
+
+    private void record(HttpMethod method, String status, String outcome, String exception, long nanos) {
+        timers.computeIfAbsent(method + " " + status + " " + exception, key -> Timer.builder("gateway.upstream.requests")
+                        .description("Time spent waiting for the server, including hedges and retries")
+                        .tag("route", route)
+                        .tag("method", method.name())
+                        .tag("status", status)
+                        .tag("outcome", outcome)
+                        .tag("exception", exception)
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object upstreamNanos = attributes.getAttribute(UPSTREAM_NANOS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (upstreamNanos instanceof AtomicLong) {
+                ((AtomicLong) upstreamNanos).addAndGet(nanos);
+            }
+        }
+    }
+}
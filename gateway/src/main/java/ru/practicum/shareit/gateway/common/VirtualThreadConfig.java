@@ -0,0 +1,24 @@
+package ru.practicum.shareit.gateway.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import ru.practicum.shareit.common.VirtualThreadCustomizer;
+import ru.practicum.shareit.common.VirtualThreadProperties;
+
+@Configuration
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "shareit-gateway.virtual-threads")
+    public VirtualThreadProperties virtualThreadProperties() {
+        return new VirtualThreadProperties();
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public VirtualThreadCustomizer virtualThreadCustomizer(VirtualThreadProperties virtualThreadProperties) {
+        return new VirtualThreadCustomizer(virtualThreadProperties);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.gateway.exception;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
+
+import javax.validation.ConstraintViolationException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+
+@RestControllerAdvice
+@Slf4j
+public class ExceptionApiHandler {
+
+    @ExceptionHandler({
+            MissingRequestHeaderException.class,
+            MethodArgumentNotValidException.class,
+            ConstraintViolationException.class,
+            ServerWebInputException.class,
+            UnsupportedStatusException.class,
+            SearchWindowExceededException.class})
+    public ResponseEntity<ErrorMessage> handleBadRequest(Exception e) {
+        var response = ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorMessage(e.getMessage(), Arrays.toString(e.getStackTrace())));
+        log.error(e.getMessage(), Arrays.toString(e.getStackTrace()));
+        return response;
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorMessage> handleTypeMismatch(MethodArgumentTypeMismatchException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return handleBadRequest(cause instanceof UnsupportedStatusException ? (Exception) cause : e);
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ErrorMessage> handleNotFound(NotFoundException e) {
+        var response = ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(new ErrorMessage(e.getMessage(), Arrays.toString(e.getStackTrace())));
+        log.warn(e.getMessage());
+        return response;
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorMessage> handleTooManyRequests(RateLimitExceededException e) {
+        var response = ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorMessage(e.getMessage(), Arrays.toString(e.getStackTrace())));
+        log.warn(e.getMessage());
+        return response;
+    }
+
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class, LoadSheddingException.class})
+    public ResponseEntity<ErrorMessage> handleUpstreamUnavailable(RuntimeException e) {
+        var response = ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorMessage(e.getMessage(), Arrays.toString(e.getStackTrace())));
+        log.warn(e.getMessage());
+        return response;
+    }
+
+    @ExceptionHandler(ResourceAccessException.class)
+    public ResponseEntity<ErrorMessage> handleUpstreamIoError(ResourceAccessException e) {
+        HttpStatus status = e.getCause() instanceof SocketTimeoutException
+                ? HttpStatus.GATEWAY_TIMEOUT
+                : HttpStatus.BAD_GATEWAY;
+        var response = ResponseEntity
+                .status(status)
+                .body(new ErrorMessage(e.getMessage(), Arrays.toString(e.getStackTrace())));
+        log.warn(e.getMessage());
+        return response;
+    }
+}
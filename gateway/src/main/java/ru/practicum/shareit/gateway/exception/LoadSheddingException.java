@@ -0,0 +1,8 @@
+package ru.practicum.shareit.gateway.exception;
+
+public class LoadSheddingException extends RuntimeException {
+
+    public LoadSheddingException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.gateway.exception;
+
+public class NotFoundException extends RuntimeException {
+    public NotFoundException(String message) {
+        super(message, null, false, false);
+    }
+}
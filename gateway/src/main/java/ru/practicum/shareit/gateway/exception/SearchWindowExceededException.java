@@ -0,0 +1,7 @@
+package ru.practicum.shareit.gateway.exception;
+
+public class SearchWindowExceededException extends RuntimeException {
+    public SearchWindowExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,4 +1,4 @@
-package ru.practicum.shareit.exception;
+package ru.practicum.shareit.gateway.exception;
 
 public class UnsupportedStatusException extends RuntimeException {
     public UnsupportedStatusException(String message) {
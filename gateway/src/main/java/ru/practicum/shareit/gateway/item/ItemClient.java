@@ -0,0 +1,95 @@
+package ru.practicum.shareit.gateway.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.gateway.common.BaseClient;
+import ru.practicum.shareit.gateway.common.RequestPriority;
+import ru.practicum.shareit.gateway.common.ResponseCache;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+import ru.practicum.shareit.gateway.item.dto.CommentDto;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+
+import java.util.Map;
+
+@Service
+@Profile("!reactive & !embedded")
+public class ItemClient extends BaseClient {
+    private static final String API_PREFIX = "/items";
+    private static final String ROUTE = "items";
+    private final ResponseCache responseCache;
+    private final ShardedItemSearch shardedSearch;
+
+    @Autowired
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      ResponseCache responseCache,
+                      ShardedItemSearch shardedSearch,
+                      UpstreamIsolation isolation) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                isolation,
+                ROUTE
+        );
+        this.responseCache = responseCache;
+        this.shardedSearch = shardedSearch;
+    }
+
+    @Override
+    protected RequestPriority priority(HttpMethod method, String path) {
+        return path.startsWith("/search") ? RequestPriority.SHEDDABLE : super.priority(method, path);
+    }
+
+    public ResponseEntity<Object> create(long userId, ItemDto itemDto) {
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        if (itemDto.getRequestId() != null) {
+            responseCache.evict(ResponseCache.REQUESTS, itemDto.getRequestId());
+        }
+        return response;
+    }
+
+    public ResponseEntity<Object> update(long userId, long itemId, ItemDto itemDto) {
+        ResponseEntity<Object> response = patch("/" + itemId, userId, itemDto);
+        responseCache.evict(ResponseCache.ITEMS, itemId);
+        responseCache.evictReferenced(ResponseCache.REQUESTS, response, "requestId");
+        return response;
+    }
+
+    public ResponseEntity<Object> getAll(long userId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size);
+        return get("?from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> get(long userId, long itemId) {
+        return responseCache.get(ResponseCache.ITEMS, itemId, userId, () -> get("/" + itemId, userId));
+    }
+
+    public ResponseEntity<Object> search(long userId, String text, int from, int size) {
+        if (shardedSearch.isEnabled()) {
+            return shardedSearch.search(userId, text, from, size);
+        }
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size);
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
+        ResponseEntity<Object> response = post("/" + itemId + "/comment", userId, commentDto);
+        responseCache.evict(ResponseCache.ITEMS, itemId);
+        return response;
+    }
+}
\ No newline at end of file
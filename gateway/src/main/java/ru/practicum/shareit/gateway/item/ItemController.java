@@ -1,19 +1,22 @@
-package ru.practicum.shareit.item;
+package ru.practicum.shareit.gateway.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.common.OnCreate;
-import ru.practicum.shareit.item.dto.CommentDto;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.gateway.common.OnCreate;
+import ru.practicum.shareit.gateway.common.RateLimit;
+import ru.practicum.shareit.gateway.item.dto.CommentDto;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
 @Controller
+@Profile("!reactive")
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
 @Validated
@@ -54,6 +57,7 @@ public class ItemController {
     }
 
     @GetMapping(path = "/search")
+    @RateLimit("search")
     ResponseEntity<Object> search(@RequestHeader(USER_HEADER) long userId,
                                   @RequestParam String text,
                                   @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
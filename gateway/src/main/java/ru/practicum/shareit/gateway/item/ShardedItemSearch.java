@@ -0,0 +1,413 @@
+package ru.practicum.shareit.gateway.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.common.VirtualThreadProperties;
+import ru.practicum.shareit.common.VirtualThreads;
+import ru.practicum.shareit.gateway.common.AbortableClientHttpRequestFactory;
+import ru.practicum.shareit.gateway.common.AdaptiveConcurrencyLimiter;
+import ru.practicum.shareit.gateway.common.BaseClient;
+import ru.practicum.shareit.gateway.common.RequestPriority;
+import ru.practicum.shareit.gateway.common.SearchShardProperties;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+import ru.practicum.shareit.gateway.exception.LoadSheddingException;
+import ru.practicum.shareit.gateway.exception.SearchWindowExceededException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Fans item search out to every shard, asks each for its first {@code from * size + size} matches and merges the
+ * ranked partial lists into the requested page. Shards that fail or miss the timeout are left out and the
+ * response is flagged with {@code X-Partial-Results: true}. A call the search stops waiting for is aborted, so it
+ * gives back its thread, bulkhead slot and concurrency permits at once. Each shard is a route of its own, {@code search:<uri>},
+ * with the concurrency limit, bulkhead and circuit breaker the clients have; calls take a sheddable permit of it and
+ * of the server-wide limit, so a saturated or failing shard is skipped rather than queued on. Only when every shard rejects the call does the
+ * search fail with the rejection.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@EnableConfigurationProperties(SearchShardProperties.class)
+public class ShardedItemSearch implements DisposableBean {
+    public static final String SHARDS_HEADER = "X-Search-Shards";
+    public static final String PARTIAL_RESULTS_HEADER = "X-Partial-Results";
+
+    private final ClientHttpRequestFactory requestFactory;
+    private final SearchShardProperties properties;
+    private final List<Shard> shards;
+    private final AdaptiveConcurrencyLimiter serverConcurrencyLimiter;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Counter partial;
+
+    public ShardedItemSearch(ClientHttpRequestFactory requestFactory, SearchShardProperties properties,
+                             VirtualThreadProperties virtualThreads, UpstreamIsolation isolation,
+                             MeterRegistry meterRegistry) {
+        this.requestFactory = requestFactory;
+        this.properties = properties;
+        this.shards = properties.getShards().stream()
+                .map(uri -> new Shard(uri, isolation, meterRegistry))
+                .collect(Collectors.toList());
+        this.serverConcurrencyLimiter = isolation.serverConcurrencyLimiter();
+        this.executor = virtualThreads.isEnabled() ? VirtualThreads.newThreadPerTaskExecutor() : newSearchExecutor();
+        this.partial = Counter.builder("gateway.search.partial")
+                .description("Searches answered without every shard")
+                .register(meterRegistry);
+    }
+
+    private static ExecutorService newSearchExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-search-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return !properties.getShards().isEmpty();
+    }
+
+    public ResponseEntity<Object> search(long userId, String text, int from, int size) {
+        long offset = (long) from * size;
+        if (offset + size > properties.getMaxWindow()) {
+            throw new SearchWindowExceededException(String.format(
+                    "Search page ends at result %d, beyond the limit of %d", offset + size, properties.getMaxWindow()));
+        }
+        int window = (int) offset + size;
+        long timeout = properties.getTimeout().toNanos();
+        long start = System.nanoTime();
+        List<ShardCall> calls = new ArrayList<>(shards.size());
+        List<CompletableFuture<ShardResponse>> futures = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            ShardCall call = new ShardCall();
+            calls.add(call);
+            futures.add(CompletableFuture.supplyAsync(() -> fetch(shard, call, userId, text, window), executor));
+        }
+        try {
+            return collect(futures, offset, size, start, timeout);
+        } finally {
+            for (int i = 0; i < futures.size(); i++) {
+                if (!futures.get(i).isDone()) {
+                    calls.get(i).abort();
+                    futures.get(i).cancel(true);
+                }
+            }
+        }
+    }
+
+    private ResponseEntity<Object> collect(List<CompletableFuture<ShardResponse>> futures, long offset, int size,
+                                           long start, long timeout) {
+        long deadline = start + timeout;
+        List<List<JsonNode>> results = new ArrayList<>(shards.size());
+        boolean timedOut = false;
+        RuntimeException rejection = null;
+        int rejected = 0;
+        for (int i = 0; i < shards.size(); i++) {
+            Shard shard = shards.get(i);
+            try {
+                ShardResponse response = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (response.status.is4xxClientError()) {
+                    shard.record("client_error", response.nanos);
+                    return ResponseEntity.status(response.status)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(response.body);
+                }
+                if (response.status.is2xxSuccessful()) {
+                    results.add(items(response.body));
+                    shard.record("success", response.nanos);
+                } else {
+                    log.warn("Search shard {} responded with {}", shard.uri, response.status);
+                    shard.record("error", response.nanos);
+                }
+            } catch (TimeoutException e) {
+                log.warn("Search shard {} did not respond within {}", shard.uri, properties.getTimeout());
+                shard.record("timeout", timeout);
+                timedOut = true;
+            } catch (ExecutionException e) {
+                if (isRejection(e.getCause())) {
+                    log.warn("Search shard {} rejected the call: {}", shard.uri, e.getCause().getMessage());
+                    shard.record("rejected", 0);
+                    rejection = (RuntimeException) e.getCause();
+                    rejected++;
+                } else {
+                    log.warn("Search shard {} failed: {}", shard.uri, e.getCause().toString());
+                    shard.record("error", System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                log.warn("Search shard {} failed: {}", shard.uri, e.toString());
+                shard.record("error", System.nanoTime() - start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException("Interrupted while waiting for search shards");
+            }
+        }
+        if (rejected == shards.size()) {
+            throw rejection;
+        }
+        if (results.isEmpty()) {
+            String message = String.format("None of %d search shards answered", shards.size());
+            throw timedOut
+                    ? new ResourceAccessException(message, new SocketTimeoutException(message))
+                    : new ResourceAccessException(message);
+        }
+        if (results.size() < shards.size()) {
+            partial.increment();
+        }
+
+        ArrayNode page = objectMapper.createArrayNode();
+        page.addAll(merge(results, offset, size));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(SHARDS_HEADER, results.size() + "/" + shards.size());
+        headers.set(PARTIAL_RESULTS_HEADER, String.valueOf(results.size() < shards.size()));
+        try {
+            return ResponseEntity.ok().headers(headers).body(objectMapper.writeValueAsBytes(page));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * K-way merge of lists ranked by score, then id, as the server returns them, skipping {@code offset} items and
+     * duplicate ids. Items without a score rank as zero, which leaves plain id order.
+     */
+    static List<JsonNode> merge(List<List<JsonNode>> lists, long offset, int size) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparingDouble(Cursor::score).reversed()
+                .thenComparingLong(Cursor::id));
+        for (List<JsonNode> list : lists) {
+            if (!list.isEmpty()) {
+                heads.add(new Cursor(list));
+            }
+        }
+        List<JsonNode> page = new ArrayList<>(size);
+        long skipped = 0;
+        Set<Long> seen = new HashSet<>();
+        while (!heads.isEmpty() && page.size() < size) {
+            Cursor head = heads.poll();
+            JsonNode item = head.list.get(head.index);
+            if (seen.add(head.id())) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page.add(item);
+                }
+            }
+            if (++head.index < head.list.size()) {
+                heads.add(head);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Calls the shard under its and the server-wide concurrency limits, bulkhead and circuit breaker, as
+     * {@link BaseClient} calls a route.
+     */
+    private ShardResponse fetch(Shard shard, ShardCall call, long userId, String text, int window) {
+        if (call.isAborted()) {
+            throw new CancellationException("Search no longer waits for shard " + shard.uri);
+        }
+        if (!shard.concurrencyLimiter.tryAcquire(RequestPriority.SHEDDABLE)) {
+            throw new LoadSheddingException(String.format("Search shard %s is at its concurrency limit of %d",
+                    shard.uri, shard.concurrencyLimiter.getLimit()));
+        }
+        if (!serverConcurrencyLimiter.tryAcquire(RequestPriority.SHEDDABLE)) {
+            shard.concurrencyLimiter.release();
+            throw new LoadSheddingException(String.format("Server is at its concurrency limit of %d, shedding search",
+                    serverConcurrencyLimiter.getLimit()));
+        }
+        try {
+            ShardResponse response = shard.bulkhead.executeSupplier(() ->
+                    shard.circuitBreaker.executeSupplier(() -> send(shard.uri, call, userId, text, window)));
+            shard.concurrencyLimiter.onSample(response.nanos);
+            serverConcurrencyLimiter.onSample(response.nanos);
+            return response;
+        } catch (ResourceAccessException e) {
+            shard.concurrencyLimiter.onDropped();
+            serverConcurrencyLimiter.onDropped();
+            throw e;
+        } catch (RuntimeException e) {
+            shard.concurrencyLimiter.release();
+            serverConcurrencyLimiter.release();
+            throw e;
+        }
+    }
+
+    private ShardResponse send(URI shard, ShardCall call, long userId, String text, int window) {
+        long start = System.nanoTime();
+        URI uri = UriComponentsBuilder.fromUri(shard)
+                .path("/items/search")
+                .queryParam("text", "{text}")
+                .queryParam("from", 0)
+                .queryParam("size", window)
+                .encode()
+                .buildAndExpand(text)
+                .toUri();
+        try {
+            ClientHttpRequest request = requestFactory.createRequest(uri, HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            request.getHeaders().set(BaseClient.REQUEST_TIMEOUT_HEADER,
+                    String.valueOf(Math.max(1, properties.getTimeout().toMillis())));
+            call.start(request);
+            try (ClientHttpResponse response = request.execute()) {
+                byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                if (response.getStatusCode().is5xxServerError()) {
+                    throw HttpServerErrorException.create(response.getStatusCode(), response.getStatusText(),
+                            response.getHeaders(), body, null);
+                }
+                return new ShardResponse(response.getStatusCode(), body, System.nanoTime() - start);
+            }
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on search shard " + shard + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isRejection(Throwable e) {
+        return e instanceof LoadSheddingException || e instanceof CallNotPermittedException
+                || e instanceof BulkheadFullException;
+    }
+
+    private List<JsonNode> items(byte[] body) throws IOException {
+        JsonNode node = objectMapper.readTree(body);
+        if (!node.isArray()) {
+            throw new IOException("Expected a JSON array of items");
+        }
+        List<JsonNode> items = new ArrayList<>(node.size());
+        node.forEach(items::add);
+        return items;
+    }
+
+    private static class Shard {
+        private final URI uri;
+        private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+        private final Bulkhead bulkhead;
+        private final CircuitBreaker circuitBreaker;
+        private final MeterRegistry meterRegistry;
+        private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+        Shard(URI uri, UpstreamIsolation isolation, MeterRegistry meterRegistry) {
+            String route = "search:" + uri;
+            this.uri = uri;
+            this.concurrencyLimiter = isolation.concurrencyLimiter(route);
+            this.bulkhead = isolation.bulkhead(route);
+            this.circuitBreaker = isolation.circuitBreaker(route);
+            this.meterRegistry = meterRegistry;
+        }
+
+        void record(String outcome, long nanos) {
+            timers.computeIfAbsent(outcome, key -> Timer.builder("gateway.search.shards")
+                            .description("Item search calls to each shard by outcome")
+                            .tag("shard", uri.toString())
+                            .tag("outcome", outcome)
+                            .register(meterRegistry))
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * The request one shard call has sent, kept so that the search can abort it once it stops waiting.
+     */
+    private static class ShardCall {
+        private ClientHttpRequest request;
+        private boolean aborted;
+
+        synchronized void start(ClientHttpRequest request) throws IOException {
+            if (aborted) {
+                throw new InterruptedIOException("Search shard call to " + request.getURI() + " was aborted");
+            }
+            this.request = request;
+        }
+
+        synchronized void abort() {
+            aborted = true;
+            if (request instanceof AbortableClientHttpRequestFactory.AbortableClientHttpRequest) {
+                ((AbortableClientHttpRequestFactory.AbortableClientHttpRequest) request).abort();
+            }
+        }
+
+        synchronized boolean isAborted() {
+            return aborted;
+        }
+    }
+
+    private static class ShardResponse {
+        private final HttpStatus status;
+        private final byte[] body;
+        private final long nanos;
+
+        ShardResponse(HttpStatus status, byte[] body, long nanos) {
+            this.status = status;
+            this.body = body;
+            this.nanos = nanos;
+        }
+    }
+
+    private static class Cursor {
+        private final List<JsonNode> list;
+        private int index;
+
+        Cursor(List<JsonNode> list) {
+            this.list = list;
+        }
+
+        double score() {
+            return list.get(index).path("score").asDouble();
+        }
+
+        long id() {
+            return list.get(index).path("id").asLong();
+        }
+    }
+}
@@ -1,9 +1,9 @@
-package ru.practicum.shareit.item.dto;
+package ru.practicum.shareit.gateway.item.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import ru.practicum.shareit.common.OnCreate;
+import ru.practicum.shareit.gateway.common.OnCreate;
 
 import javax.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
@@ -1,29 +1,42 @@
-package ru.practicum.shareit.request;
+package ru.practicum.shareit.gateway.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.common.BaseClient;
-import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.gateway.common.BaseClient;
+import ru.practicum.shareit.gateway.common.ResponseCache;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+import ru.practicum.shareit.gateway.request.dto.ItemRequestDto;
 
 import java.util.Map;
 
 @Service
+@Profile("!reactive & !embedded")
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
+    private static final String ROUTE = "requests";
+    private final ResponseCache responseCache;
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                             RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory,
+                             ResponseCache responseCache,
+                             UpstreamIsolation isolation) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                isolation,
+                ROUTE
         );
+        this.responseCache = responseCache;
     }
 
     public ResponseEntity<Object> create(long userId, ItemRequestDto itemRequestDto) {
@@ -35,7 +48,7 @@ public class ItemRequestClient extends BaseClient {
     }
 
     public ResponseEntity<Object> get(long userId, long requestId) {
-        return get("/" + requestId, userId);
+        return responseCache.get(ResponseCache.REQUESTS, requestId, userId, () -> get("/" + requestId, userId));
     }
 
     public ResponseEntity<Object> getAll(long userId, int from, int size) {
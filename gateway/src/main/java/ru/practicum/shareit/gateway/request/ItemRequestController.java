@@ -1,18 +1,20 @@
-package ru.practicum.shareit.request;
+package ru.practicum.shareit.gateway.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.common.OnCreate;
-import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.gateway.common.OnCreate;
+import ru.practicum.shareit.gateway.request.dto.ItemRequestDto;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
 @Controller
+@Profile("!reactive")
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
 @Validated
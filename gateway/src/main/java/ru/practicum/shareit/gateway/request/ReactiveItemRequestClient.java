@@ -0,0 +1,43 @@
+package ru.practicum.shareit.gateway.request;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.common.ReactiveBaseClient;
+import ru.practicum.shareit.gateway.request.dto.ItemRequestDto;
+
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveItemRequestClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/requests";
+
+    @Autowired
+    public ReactiveItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<Object>> create(long userId, ItemRequestDto itemRequestDto) {
+        return post("", userId, itemRequestDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllByUserId(long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> get(long userId, long requestId) {
+        return get("/" + requestId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getAll(long userId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size);
+        return get("/all?from={from}&size={size}", userId, parameters);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.gateway.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.common.OnCreate;
+import ru.practicum.shareit.gateway.request.dto.ItemRequestDto;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Controller
+@Profile("reactive")
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class ReactiveItemRequestController {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private final ReactiveItemRequestClient itemRequestClient;
+
+    @PostMapping
+    Mono<ResponseEntity<Object>> create(@RequestHeader(USER_HEADER) long userId,
+                                        @Validated({OnCreate.class}) @RequestBody ItemRequestDto itemRequestDto) {
+        log.info("Creating request from request body: " + itemRequestDto.toString());
+        return itemRequestClient.create(userId, itemRequestDto);
+    }
+
+    @GetMapping
+    Mono<ResponseEntity<Object>> getAllByUserId(@RequestHeader(USER_HEADER) long userId) {
+        log.info("Receiving requests of user with ID: '" + userId + "'");
+        return itemRequestClient.getAllByUserId(userId);
+    }
+
+    @GetMapping(path = "{requestId}")
+    Mono<ResponseEntity<Object>> get(@RequestHeader(USER_HEADER) long userId,
+                                     @PathVariable long requestId) {
+        log.info("Receiving request with ID: '" + requestId + "'");
+        return itemRequestClient.get(userId, requestId);
+    }
+
+    @GetMapping(path = "/all")
+    Mono<ResponseEntity<Object>> getAll(@RequestHeader(USER_HEADER) long userId,
+                                        @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
+                                        @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
+        log.info("Receiving all requests");
+        return itemRequestClient.getAll(userId, from, size);
+    }
+}
\ No newline at end of file
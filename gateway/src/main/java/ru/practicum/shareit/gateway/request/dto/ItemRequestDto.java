@@ -1,10 +1,10 @@
-package ru.practicum.shareit.request.dto;
+package ru.practicum.shareit.gateway.request.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import ru.practicum.shareit.common.OnCreate;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.gateway.common.OnCreate;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
 
 import javax.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.gateway.traffic;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.traffic-capture")
+public class TrafficCaptureProperties {
+
+    private boolean enabled = false;
+    private Path directory = Path.of("traffic");
+    private DataSize maxFileSize = DataSize.ofMegabytes(64);
+    private int maxFiles = 10;
+    private int queueCapacity = 10000;
+}
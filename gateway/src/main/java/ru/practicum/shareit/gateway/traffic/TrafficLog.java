@@ -0,0 +1,94 @@
+package ru.practicum.shareit.gateway.traffic;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Binary format of captured traffic: a magic number and version per file, then length-prefixed records.
+ */
+public final class TrafficLog {
+    static final String FILE_PREFIX = "traffic-";
+    static final String FILE_SUFFIX = ".bin";
+    private static final int MAGIC = 0x53495446;
+    private static final int VERSION = 1;
+
+    private TrafficLog() {
+    }
+
+    static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    static int write(DataOutputStream out, TrafficRecord record) throws IOException {
+        int before = out.size();
+        out.writeLong(record.getTimestamp());
+        out.writeLong(record.getLatencyMicros());
+        out.writeShort(record.getStatus());
+        out.writeUTF(record.getMethod());
+        out.writeUTF(record.getTarget());
+        out.writeLong(record.getUserId() == null ? -1 : record.getUserId());
+        out.writeInt(record.getBody().length);
+        out.write(record.getBody());
+        return out.size() - before;
+    }
+
+    public static List<TrafficRecord> read(Path path) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> list = Files.list(path)) {
+                files = list.filter(TrafficLog::isLogFile).sorted().collect(Collectors.toList());
+            }
+        } else {
+            files = List.of(path);
+        }
+        List<TrafficRecord> records = new ArrayList<>();
+        for (Path file : files) {
+            readFile(file, records);
+        }
+        records.sort(Comparator.comparingLong(TrafficRecord::getTimestamp));
+        return records;
+    }
+
+    static boolean isLogFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+    }
+
+    private static void readFile(Path file, List<TrafficRecord> records) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a traffic log");
+            }
+            while (true) {
+                long timestamp;
+                try {
+                    timestamp = in.readLong();
+                } catch (EOFException e) {
+                    return;
+                }
+                long latencyMicros = in.readLong();
+                int status = in.readShort();
+                String method = in.readUTF();
+                String target = in.readUTF();
+                long userId = in.readLong();
+                byte[] body = new byte[in.readInt()];
+                in.readFully(body);
+                records.add(new TrafficRecord(timestamp, latencyMicros, status, method, target,
+                        userId < 0 ? null : userId, body));
+            }
+        } catch (EOFException e) {
+            // The last record of a file the gateway was still writing can be cut short
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.gateway.traffic;
+
+import lombok.Value;
+
+@Value
+public class TrafficRecord {
+    long timestamp;
+    long latencyMicros;
+    int status;
+    String method;
+    String target;
+    Long userId;
+    byte[] body;
+}
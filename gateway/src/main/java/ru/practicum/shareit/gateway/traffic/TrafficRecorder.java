@@ -0,0 +1,162 @@
+package ru.practicum.shareit.gateway.traffic;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Captures requests proxied to the server into a rotating log in {@link TrafficLog} format. Request threads only
+ * enqueue records; a single writer thread appends them, and records are dropped when the queue is full.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(TrafficCaptureProperties.class)
+public class TrafficRecorder implements ClientHttpRequestInterceptor, DisposableBean {
+
+    private final TrafficCaptureProperties properties;
+    private final BlockingQueue<TrafficRecord> queue;
+    private final Counter recorded;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private DataOutputStream out;
+    private long fileSize;
+
+    public TrafficRecorder(TrafficCaptureProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.recorded = Counter.builder("gateway.traffic-capture.records")
+                .description("Proxied requests captured to the traffic log")
+                .tag("result", "recorded")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("gateway.traffic-capture.records")
+                .description("Proxied requests captured to the traffic log")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        this.writer = new Thread(this::writeLoop, "gateway-traffic-capture");
+        this.writer.setDaemon(true);
+        if (properties.isEnabled()) {
+            writer.start();
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!properties.isEnabled()) {
+            return execution.execute(request, body);
+        }
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        int status = 0;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            status = response.getRawStatusCode();
+            return response;
+        } finally {
+            String userId = request.getHeaders().getFirst("X-Sharer-User-Id");
+            TrafficRecord record = new TrafficRecord(timestamp,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                    status,
+                    request.getMethodValue(),
+                    target(request.getURI()),
+                    userId == null ? null : Long.valueOf(userId),
+                    body);
+            if (queue.offer(record)) {
+                recorded.increment();
+            } else {
+                dropped.increment();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void writeLoop() {
+        try {
+            Files.createDirectories(properties.getDirectory());
+            while (running || !queue.isEmpty()) {
+                TrafficRecord record;
+                try {
+                    record = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    running = false;
+                    continue;
+                }
+                if (record != null) {
+                    write(record);
+                }
+                if (queue.isEmpty() && out != null) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Stopped capturing traffic to " + properties.getDirectory(), e);
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void write(TrafficRecord record) throws IOException {
+        if (out == null || fileSize >= properties.getMaxFileSize().toBytes()) {
+            rotate();
+        }
+        fileSize += TrafficLog.write(out, record);
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+        Path file = properties.getDirectory().resolve(
+                TrafficLog.FILE_PREFIX + System.currentTimeMillis() + TrafficLog.FILE_SUFFIX);
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        TrafficLog.writeHeader(out);
+        fileSize = out.size();
+        try (Stream<Path> files = Files.list(properties.getDirectory())) {
+            List<Path> logs = files.filter(TrafficLog::isLogFile).sorted().collect(Collectors.toList());
+            for (int i = 0; i < logs.size() - properties.getMaxFiles(); i++) {
+                Files.deleteIfExists(logs.get(i));
+            }
+        }
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Couldn't close traffic log", e);
+        }
+        out = null;
+    }
+
+    private static String target(URI uri) {
+        return uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+    }
+}
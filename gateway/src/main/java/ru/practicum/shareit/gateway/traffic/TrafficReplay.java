@@ -0,0 +1,168 @@
+package ru.practicum.shareit.gateway.traffic;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-issues a captured traffic log against a server and prints latency percentiles per route next to the ones
+ * recorded at capture time. A speed of 1 keeps the original pacing, 2 replays twice as fast and 0 sends as fast as
+ * the concurrency limit allows.
+ * <p>
+ * Replayed latency is measured from the time a request was due, not from when it was sent. A request held back by
+ * the concurrency limit, or by a replay loop that fell behind, counts that wait in its latency, so a slow server
+ * cannot hide its stalls by delaying the requests that would have seen them. Requests sent more than
+ * {@link #LATE_TOLERANCE} after they were due are reported as late.
+ * <p>
+ * Run it from the gateway jar with
+ * {@code java -cp shareit-gateway.jar -Dloader.main=ru.practicum.shareit.gateway.traffic.TrafficReplay
+ * org.springframework.boot.loader.PropertiesLauncher <log file or directory> <server url> [speed] [concurrency]}.
+ */
+public final class TrafficReplay {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration LATE_TOLERANCE = Duration.ofMillis(1);
+
+    private final URI server;
+    private final double speed;
+    private final int concurrency;
+
+    TrafficReplay(URI server, double speed, int concurrency) {
+        this.server = server;
+        this.speed = speed;
+        this.concurrency = concurrency;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: TrafficReplay <log file or directory> <server url> [speed] [concurrency]");
+            return;
+        }
+        List<TrafficRecord> records = TrafficLog.read(Path.of(args[0]));
+        double speed = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        if (records.isEmpty()) {
+            System.err.println("No traffic records in " + args[0]);
+            return;
+        }
+        new TrafficReplay(URI.create(args[1]), speed, concurrency).replay(records).print(System.out);
+    }
+
+    Report replay(List<TrafficRecord> records) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, 16));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        Report report = new Report();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long first = records.get(0).getTimestamp();
+        long start = System.nanoTime();
+        try {
+            for (TrafficRecord record : records) {
+                long due = System.nanoTime();
+                if (speed > 0) {
+                    due = start + (long) (TimeUnit.MILLISECONDS.toNanos(record.getTimestamp() - first) / speed);
+                    TimeUnit.NANOSECONDS.sleep(due - System.nanoTime());
+                }
+                inFlight.acquire();
+                if (speed > 0 && System.nanoTime() - due > LATE_TOLERANCE.toNanos()) {
+                    report.late++;
+                }
+                long scheduled = due;
+                client.sendAsync(request(record), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            report.record(record, response == null ? -1 : response.statusCode(),
+                                    System.nanoTime() - scheduled);
+                            inFlight.release();
+                        });
+            }
+            inFlight.acquire(concurrency);
+        } finally {
+            executor.shutdownNow();
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private HttpRequest request(TrafficRecord record) {
+        HttpRequest.BodyPublisher body = record.getBody().length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(record.getBody());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(server.resolve(record.getTarget()))
+                .method(record.getMethod(), body)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json");
+        if (record.getUserId() != null) {
+            builder.header("X-Sharer-User-Id", String.valueOf(record.getUserId()));
+        }
+        return builder.build();
+    }
+
+    private static String route(String target) {
+        int end = target.indexOf('/', 1);
+        if (end < 0) {
+            end = target.indexOf('?');
+        }
+        return end > 0 ? target.substring(0, end) : target;
+    }
+
+    static class Report {
+        private final Map<String, Histogram> recorded = new TreeMap<>();
+        private final Map<String, Histogram> replayed = new TreeMap<>();
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+        private long late;
+        private long elapsedNanos;
+
+        synchronized long getLate() {
+            return late;
+        }
+
+        synchronized Histogram getReplayed(String route) {
+            return replayed.get(route);
+        }
+
+        synchronized void record(TrafficRecord record, int status, long nanos) {
+            String route = record.getMethod() + " " + route(record.getTarget());
+            recorded.computeIfAbsent(route, key -> new Histogram(3)).recordValue(record.getLatencyMicros());
+            replayed.computeIfAbsent(route, key -> new Histogram(3)).recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+            statuses.merge(status, 1, Integer::sum);
+        }
+
+        synchronized void print(PrintStream out) {
+            long total = replayed.values().stream().mapToLong(Histogram::getTotalCount).sum();
+            double seconds = elapsedNanos / 1e9;
+            out.printf("Replayed %d requests in %.1f s (%.1f req/s), %d sent more than %d ms behind schedule%n",
+                    total, seconds, total / seconds, late, LATE_TOLERANCE.toMillis());
+            out.println("Statuses (-1 = I/O error): " + statuses);
+            out.printf("%-24s %8s %23s %42s%n", "", "count", "recorded p50/p99 ms", "replayed p50/p90/p99/p99.9/max ms");
+            replayed.forEach((route, histogram) -> {
+                Histogram original = recorded.get(route);
+                out.printf("%-24s %8d %11.1f /%10.1f %9.1f /%6.1f /%6.1f /%6.1f /%6.1f%n",
+                        route, histogram.getTotalCount(),
+                        millis(original, 50), millis(original, 99),
+                        millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                        histogram.getMaxValue() / 1000.0);
+            });
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
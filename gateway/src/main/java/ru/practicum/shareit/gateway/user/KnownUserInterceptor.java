@@ -0,0 +1,50 @@
+package ru.practicum.shareit.gateway.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.gateway.exception.NotFoundException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class KnownUserInterceptor implements HandlerInterceptor {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private final KnownUsers knownUsers;
+    private final UserClient userClient;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String header = request.getHeader(USER_HEADER);
+        if (header == null) {
+            return true;
+        }
+        long userId;
+        try {
+            userId = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        KnownUsers.Membership membership = knownUsers.check(userId);
+        if (membership == KnownUsers.Membership.UNVERIFIED) {
+            ResponseEntity<Object> user = userClient.get(userId);
+            if (user.getStatusCode().is2xxSuccessful()) {
+                knownUsers.add(userId);
+            } else if (user.getStatusCode() == HttpStatus.NOT_FOUND) {
+                knownUsers.markMissing(userId);
+                membership = KnownUsers.Membership.ABSENT;
+            }
+        }
+        if (membership == KnownUsers.Membership.ABSENT) {
+            throw new NotFoundException("User with ID: '" + userId + "' doesn't exist");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.gateway.user;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.gateway.common.BloomFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Profile("!reactive")
+@EnableConfigurationProperties(KnownUsersProperties.class)
+@Slf4j
+public class KnownUsers {
+
+    public enum Membership { POSSIBLE, ABSENT, UNVERIFIED }
+
+    private final KnownUsersProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Boolean> missing;
+    private final RateLimiter lookups;
+    private final Counter rejected;
+    private final Counter skippedLookups;
+    private final AtomicLong maxKnownId = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private long lastLoadedMaxId;
+
+    public KnownUsers(KnownUsersProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(properties.getNegativeMaxSize())
+                .expireAfterWrite(properties.getNegativeTtl())
+                .build();
+        this.lookups = RateLimiter.of("known-users-lookup", RateLimiterConfig.custom()
+                .limitForPeriod(properties.getLookupsPerSecond())
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ZERO)
+                .build());
+        this.rejected = Counter.builder("gateway.known-users.rejected")
+                .description("Requests rejected at the gateway because their user doesn't exist")
+                .register(meterRegistry);
+        this.skippedLookups = Counter.builder("gateway.known-users.skipped-lookups")
+                .description("Unknown users passed to the server unchecked because the lookup budget was spent")
+                .register(meterRegistry);
+    }
+
+    public Membership check(long userId) {
+        Snapshot current = snapshot;
+        if (!properties.isEnabled() || current == null) {
+            return Membership.POSSIBLE;
+        }
+        if (userId <= 0 || missing.getIfPresent(userId) != null) {
+            return absent();
+        }
+        if (current.users.mightContain(userId)) {
+            return Membership.POSSIBLE;
+        }
+        if (userId <= current.watermark) {
+            missing.put(userId, Boolean.TRUE);
+            return absent();
+        }
+        // IDs are sequential, so one far beyond the newest known user can't have been created since the last load.
+        if (userId > maxKnownId.get() + properties.getMaxIdAhead()) {
+            return absent();
+        }
+        // Each lookup costs an upstream call; past the budget the request goes on and the server answers for it.
+        if (!lookups.acquirePermission()) {
+            skippedLookups.increment();
+            return Membership.POSSIBLE;
+        }
+        return Membership.UNVERIFIED;
+    }
+
+    public synchronized void reload(long[] userIds) {
+        BloomFilter users = new BloomFilter(Math.max(properties.getExpectedUsers(), userIds.length * 2L),
+                properties.getFalsePositiveRate());
+        Arrays.stream(userIds).forEach(users::put);
+        // Only IDs up to the previous load's maximum are known to be committed by now; newer ones may still be in flight.
+        snapshot = new Snapshot(users, lastLoadedMaxId);
+        lastLoadedMaxId = Arrays.stream(userIds).max().orElse(lastLoadedMaxId);
+        maxKnownId.accumulateAndGet(lastLoadedMaxId, Math::max);
+    }
+
+    public void add(long userId) {
+        maxKnownId.accumulateAndGet(userId, Math::max);
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.users.put(userId);
+        }
+        missing.invalidate(userId);
+    }
+
+    public void add(ResponseEntity<Object> created) {
+        if (!created.getStatusCode().is2xxSuccessful() || !(created.getBody() instanceof byte[])) {
+            return;
+        }
+        try {
+            JsonNode id = objectMapper.readTree((byte[]) created.getBody()).path("id");
+            if (id.canConvertToLong()) {
+                add(id.asLong());
+            }
+        } catch (IOException e) {
+            log.warn("Couldn't read ID of created user from response", e);
+        }
+    }
+
+    public void markMissing(long userId) {
+        missing.put(userId, Boolean.TRUE);
+    }
+
+    private Membership absent() {
+        rejected.increment();
+        return Membership.ABSENT;
+    }
+
+    private static class Snapshot {
+        private final BloomFilter users;
+        private final long watermark;
+
+        Snapshot(BloomFilter users, long watermark) {
+            this.users = users;
+            this.watermark = watermark;
+        }
+    }
+}
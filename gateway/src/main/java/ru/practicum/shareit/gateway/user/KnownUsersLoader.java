@@ -0,0 +1,80 @@
+package ru.practicum.shareit.gateway.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@Component
+@Profile("!reactive")
+@Slf4j
+public class KnownUsersLoader implements DisposableBean {
+
+    private final UserClient userClient;
+    private final KnownUsers knownUsers;
+    private final ObjectMapper objectMapper;
+    private final KnownUsersProperties properties;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "known-users-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public KnownUsersLoader(UserClient userClient, KnownUsers knownUsers, ObjectMapper objectMapper,
+                            KnownUsersProperties properties) {
+        this.userClient = userClient;
+        this.knownUsers = knownUsers;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isEnabled()) {
+            long interval = properties.getRefreshInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::load, 0, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    void load() {
+        try {
+            LongStream.Builder userIds = LongStream.builder();
+            int count = 0;
+            long afterId = 0;
+            while (true) {
+                ResponseEntity<Object> response = userClient.getIds(afterId, properties.getPageSize());
+                if (!response.getStatusCode().is2xxSuccessful() || !(response.getBody() instanceof byte[])) {
+                    log.warn("Couldn't load known users, server responded with " + response.getStatusCode());
+                    return;
+                }
+                long[] page = objectMapper.readValue((byte[]) response.getBody(), long[].class);
+                Arrays.stream(page).forEach(userIds::add);
+                count += page.length;
+                if (page.length < properties.getPageSize()) {
+                    break;
+                }
+                afterId = page[page.length - 1];
+            }
+            knownUsers.reload(userIds.build().toArray());
+            log.info("Loaded " + count + " known user IDs");
+        } catch (IOException | RuntimeException e) {
+            log.warn("Couldn't load known users", e);
+        }
+    }
+}
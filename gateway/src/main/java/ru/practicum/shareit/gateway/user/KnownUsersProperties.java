@@ -0,0 +1,23 @@
+package ru.practicum.shareit.gateway.user;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.known-users")
+public class KnownUsersProperties {
+
+    private boolean enabled = true;
+    private long expectedUsers = 1_000_000;
+    private double falsePositiveRate = 0.01;
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    private Duration negativeTtl = Duration.ofSeconds(30);
+    private long negativeMaxSize = 100_000;
+    private int pageSize = 10_000;
+    private long maxIdAhead = 10_000;
+    private int lookupsPerSecond = 50;
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.gateway.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.common.ReactiveBaseClient;
+import ru.practicum.shareit.gateway.user.dto.UserDto;
+
+@Service
+@Profile("reactive")
+public class ReactiveUserClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    @Autowired
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<Object>> create(UserDto userDto) {
+        return post("", userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> update(UserDto userDto) {
+        return patch("/" + userDto.getId(), userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getAll() {
+        return get("");
+    }
+
+    public Mono<ResponseEntity<Object>> get(long id) {
+        return get("/" + id);
+    }
+
+    public Mono<ResponseEntity<Object>> delete(long id) {
+        return delete("/" + id);
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.gateway.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.common.OnCreate;
+import ru.practicum.shareit.gateway.common.OnUpdate;
+import ru.practicum.shareit.gateway.user.dto.UserDto;
+
+@Controller
+@Profile("reactive")
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class ReactiveUserController {
+
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    Mono<ResponseEntity<Object>> create(@Validated({OnCreate.class}) @RequestBody UserDto userDto) {
+        log.info("Creating user from request body: " + userDto.toString());
+        return userClient.create(userDto);
+    }
+
+    @PatchMapping(path = "/{id}")
+    Mono<ResponseEntity<Object>> update(@Validated({OnUpdate.class}) @RequestBody UserDto userDto,
+                                        @PathVariable long id) {
+        log.info("Updating user with ID: '" + id + "' from request body: " + userDto.toString());
+        userDto.setId(id);
+        return userClient.update(userDto);
+    }
+
+    @GetMapping
+    Mono<ResponseEntity<Object>> getAll() {
+        log.info("Receiving list of all users");
+        return userClient.getAll();
+    }
+
+    @GetMapping(path = "/{id}")
+    Mono<ResponseEntity<Object>> get(@PathVariable long id) {
+        log.info("Receiving user with ID: '" + id + "'");
+        return userClient.get(id);
+    }
+
+    @DeleteMapping(path = "/{id}")
+    Mono<ResponseEntity<Object>> delete(@PathVariable long id) {
+        log.info("Removing user with ID: '" + id + "'");
+        return userClient.delete(id);
+    }
+}
\ No newline at end of file
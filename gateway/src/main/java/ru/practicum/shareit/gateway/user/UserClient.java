@@ -0,0 +1,80 @@
+package ru.practicum.shareit.gateway.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.gateway.common.BaseClient;
+import ru.practicum.shareit.gateway.common.ResponseCache;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+import ru.practicum.shareit.gateway.user.dto.UserDto;
+
+import java.util.Map;
+
+@Service
+@Profile("!reactive & !embedded")
+public class UserClient extends BaseClient {
+    private static final String API_PREFIX = "/users";
+    private static final String ROUTE = "users";
+    private final ResponseCache responseCache;
+    private final KnownUsers knownUsers;
+
+    @Autowired
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      ResponseCache responseCache,
+                      UpstreamIsolation isolation,
+                      KnownUsers knownUsers) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                isolation,
+                ROUTE
+        );
+        this.responseCache = responseCache;
+        this.knownUsers = knownUsers;
+    }
+
+    public ResponseEntity<Object> create(UserDto userDto) {
+        ResponseEntity<Object> response = post("", userDto);
+        knownUsers.add(response);
+        return response;
+    }
+
+    public ResponseEntity<Object> update(UserDto userDto) {
+        ResponseEntity<Object> response = patch("/" + userDto.getId(), userDto);
+        responseCache.evict(ResponseCache.USERS, userDto.getId());
+        responseCache.evictAll(ResponseCache.ITEMS);
+        return response;
+    }
+
+    public ResponseEntity<Object> getAll() {
+        return get("");
+    }
+
+    public ResponseEntity<Object> getIds(long afterId, int size) {
+        return get("/ids?afterId={afterId}&size={size}", null, Map.of("afterId", afterId, "size", size));
+    }
+
+    public ResponseEntity<Object> get(long id) {
+        return responseCache.get(ResponseCache.USERS, id, null, () -> get("/" + id));
+    }
+
+    public ResponseEntity<Object> delete(long id) {
+        ResponseEntity<Object> response = delete("/" + id);
+        responseCache.evict(ResponseCache.USERS, id);
+        responseCache.evictAll(ResponseCache.ITEMS);
+        responseCache.evictAll(ResponseCache.REQUESTS);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            knownUsers.markMissing(id);
+        }
+        return response;
+    }
+}
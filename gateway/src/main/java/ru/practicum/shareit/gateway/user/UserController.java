@@ -1,16 +1,18 @@
-package ru.practicum.shareit.user;
+package ru.practicum.shareit.gateway.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.common.OnCreate;
-import ru.practicum.shareit.common.OnUpdate;
-import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.gateway.common.OnCreate;
+import ru.practicum.shareit.gateway.common.OnUpdate;
+import ru.practicum.shareit.gateway.user.dto.UserDto;
 
 @Controller
+@Profile("!reactive")
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 @Validated
@@ -1,10 +1,10 @@
-package ru.practicum.shareit.user.dto;
+package ru.practicum.shareit.gateway.user.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import ru.practicum.shareit.common.OnCreate;
-import ru.practicum.shareit.common.OnUpdate;
+import ru.practicum.shareit.gateway.common.OnCreate;
+import ru.practicum.shareit.gateway.common.OnUpdate;
 
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
@@ -1,46 +0,0 @@
-package ru.practicum.shareit.user;
-
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.common.BaseClient;
-import ru.practicum.shareit.user.dto.UserDto;
-
-@Service
-public class UserClient extends BaseClient {
-    private static final String API_PREFIX = "/users";
-
-    @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
-    }
-
-    public ResponseEntity<Object> create(UserDto userDto) {
-        return post("", userDto);
-    }
-
-    public ResponseEntity<Object> update(UserDto userDto) {
-        return patch("/" + userDto.getId(), userDto);
-    }
-
-    public ResponseEntity<Object> getAll() {
-        return get("");
-    }
-
-    public ResponseEntity<Object> get(long id) {
-        return get("/" + id);
-    }
-
-    public ResponseEntity<Object> delete(long id) {
-        return delete("/" + id);
-    }
-}
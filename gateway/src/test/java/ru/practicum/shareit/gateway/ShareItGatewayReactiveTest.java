@@ -0,0 +1,14 @@
+package ru.practicum.shareit.gateway;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+public class ShareItGatewayReactiveTest {
+
+    @Test
+    void contextLoads() {
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.gateway;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+public class ShareItGatewayTest {
+
+    @Test
+    void contextLoads() {
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.gateway.batch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.gateway.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.gateway.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.gateway.exception.ErrorMessage;
+import ru.practicum.shareit.gateway.exception.RateLimitExceededException;
+import ru.practicum.shareit.gateway.exception.UnsupportedStatusException;
+import ru.practicum.shareit.gateway.item.ItemClient;
+
+import javax.validation.ConstraintViolationException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "shareit-gateway.rate-limit.limits.search.capacity=2",
+        "shareit-gateway.concurrency-limit.enabled=true",
+        "shareit-gateway.concurrency-limit.initial-limit=4",
+        "shareit-gateway.concurrency-limit.sheddable-share=0.5"})
+class BatchClientTest {
+
+    @Autowired
+    SubRequestValidator subRequestValidator;
+    @Autowired
+    BatchClient batchClient;
+    @Autowired
+    ItemClient itemClient;
+
+    @Test
+    void should_parse_state_like_booking_routes() {
+        assertEquals("/bookings?state=WAITING&from=0&size=10",
+                subRequestValidator.validate(1, get("/bookings?state=waiting")).getPath());
+        assertEquals("/bookings/owner?state=ALL&from=5&size=10",
+                subRequestValidator.validate(1, get("/bookings/owner?state=all&from=5")).getPath());
+        assertEquals("/bookings?state=ALL&from=0&size=10",
+                subRequestValidator.validate(1, get("/bookings")).getPath());
+    }
+
+    @Test
+    void should_reject_unknown_state_with_route_message() {
+        UnsupportedStatusException e = assertThrows(UnsupportedStatusException.class,
+                () -> subRequestValidator.validate(1, get("/bookings?state=sometimes")));
+        assertEquals("Unknown state: sometimes", e.getMessage());
+        assertThrows(ConstraintViolationException.class,
+                () -> subRequestValidator.validate(1, get("/bookings?from=-1")));
+    }
+
+    @Test
+    void should_charge_search_sub_requests_to_search_bucket() {
+        subRequestValidator.validate(2, get("/items/search?text=дрель"));
+        subRequestValidator.validate(2, get("/items/search?text=дрель"));
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> subRequestValidator.validate(2, get("/items/search?text=дрель")));
+        assertEquals("Rate limit 'search' exceeded", e.getMessage());
+        assertEquals("/items/1", subRequestValidator.validate(2, get("/items/1")).getPath());
+    }
+
+    @Test
+    void should_shed_search_sub_requests_at_sheddable_priority() {
+        itemClient.admit(HttpMethod.GET, "/1");
+        itemClient.admit(HttpMethod.GET, "/2");
+        try {
+            ResponseEntity<Object> response = batchClient.execute(3,
+                    List.of(get("/items/search?text=drill"), get("/bookings?state=unknown")));
+            List<?> responses = (List<?>) response.getBody();
+            BatchResponseDto shed = (BatchResponseDto) responses.get(0);
+            BatchResponseDto invalid = (BatchResponseDto) responses.get(1);
+            assertEquals(503, shed.getStatus());
+            assertEquals(400, invalid.getStatus());
+            assertEquals("Unknown state: unknown", ((ErrorMessage) invalid.getBody()).getError());
+        } finally {
+            itemClient.releaseAdmission();
+            itemClient.releaseAdmission();
+        }
+        itemClient.admit(HttpMethod.GET, "/search?text=drill");
+        itemClient.releaseAdmission();
+    }
+
+    private static BatchRequestDto get(String path) {
+        return new BatchRequestDto("GET", path);
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private ConcurrencyLimitProperties properties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setEnabled(true);
+        properties.setInitialLimit(10);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(40);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void should_shed_lower_priorities_first() {
+        properties.setNormalShare(0.8);
+        properties.setSheddableShare(0.5);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.SHEDDABLE));
+        }
+        assertFalse(limiter.tryAcquire(RequestPriority.SHEDDABLE));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertEquals(1, shed("sheddable"));
+        assertEquals(1, shed("normal"));
+        assertEquals(1, shed("critical"));
+    }
+
+    @Test
+    void should_free_slot_on_release() {
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.CRITICAL));
+        limiter.release();
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+    }
+
+    @Test
+    void should_grow_limit_while_saturated_with_steady_latency() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        runSaturated(limiter, 200, RTT);
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    void should_shrink_limit_when_latency_rises() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        runSaturated(limiter, 200, RTT);
+        runSaturated(limiter, 20, 4 * RTT);
+        assertTrue(limiter.getLimit() < 30, "Limit: " + limiter.getLimit());
+    }
+
+    @Test
+    void should_keep_limit_when_far_below_it() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+            limiter.onSample(i < 50 ? RTT : 4 * RTT);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void should_back_off_on_dropped_calls_down_to_min_limit() {
+        properties.setBackoffRatio(0.5);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        limiter.onDropped();
+        assertEquals(5, limiter.getLimit());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+            limiter.onDropped();
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void should_admit_everything_when_disabled() {
+        properties.setEnabled(false);
+        properties.setInitialLimit(1);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.SHEDDABLE));
+        }
+        limiter.onDropped();
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void should_start_at_max_limit_and_admit_healthy_load_before_any_sample() {
+        ConcurrencyLimitProperties defaults = new ConcurrencyLimitProperties();
+        defaults.setEnabled(true);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("items", defaults, meterRegistry);
+        assertEquals(50, limiter.getLimit());
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 40; i++) {
+                assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+            }
+            for (int i = 0; i < 40; i++) {
+                limiter.onSample(RTT);
+            }
+        }
+        assertEquals(50, limiter.getLimit());
+        assertEquals(0, shed("normal"));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter() {
+        return new AdaptiveConcurrencyLimiter("items", properties, meterRegistry);
+    }
+
+    /**
+     * Fills the limit, completes one call with the given round trip and tries to take its slot again, as a route
+     * under more load than it admits does.
+     */
+    private static void runSaturated(AdaptiveConcurrencyLimiter limiter, int samples, long rtt) {
+        for (int i = 0; i < samples; i++) {
+            while (limiter.tryAcquire(RequestPriority.CRITICAL)) {
+                continue;
+            }
+            limiter.onSample(rtt);
+        }
+    }
+
+    private double shed(String priority) {
+        return meterRegistry.counter("gateway.concurrency.shed", "route", "items", "priority", priority).count();
+    }
+}
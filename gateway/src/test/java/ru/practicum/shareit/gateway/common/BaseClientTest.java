@@ -0,0 +1,192 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.gateway.exception.LoadSheddingException;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BaseClientTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final ShadowTraffic shadowTraffic = mock(ShadowTraffic.class);
+    private CountDownLatch release = new CountDownLatch(1);
+    private HttpStatus upstreamStatus = HttpStatus.OK;
+    private final ServerConcurrencyLimitProperties serverLimits = new ServerConcurrencyLimitProperties();
+
+    @BeforeEach
+    void init() {
+        serverLimits.setEnabled(true);
+    }
+
+    @Test
+    void should_coalesce_identical_gets_before_taking_a_concurrency_slot() throws Exception {
+        when(shadowTraffic.sample()).thenReturn(true);
+        ConcurrencyLimitProperties limits = new ConcurrencyLimitProperties();
+        limits.setEnabled(true);
+        limits.setInitialLimit(1);
+        limits.setMinLimit(1);
+        limits.setNormalShare(1.0);
+        BaseClient client = new BaseClient(restTemplate(), isolation(limits, shadowTraffic), "items");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<Object>>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> client.get("/items/1", 1L)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<ResponseEntity<Object>> response : responses) {
+                assertEquals(HttpStatus.OK, response.get(5, TimeUnit.SECONDS).getStatusCode());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0, meterRegistry.counter("gateway.concurrency.shed", "route", "items", "priority", "normal")
+                .count());
+        verify(shadowTraffic).mirror(eq("items"), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void should_mirror_only_gets_that_went_upstream() {
+        when(shadowTraffic.sample()).thenReturn(true);
+        release = new CountDownLatch(0);
+        BaseClient client = new BaseClient(restTemplate(), isolation(new ConcurrencyLimitProperties(), shadowTraffic),
+                "items");
+        client.get("/items/1", 1L);
+        client.post("/items", 1L, Map.of("name", "drill"));
+        upstreamStatus = HttpStatus.NOT_MODIFIED;
+        client.get("/items/2", 1L);
+        upstreamStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        client.get("/items/3", 1L);
+        ArgumentCaptor<URI> uris = ArgumentCaptor.forClass(URI.class);
+        verify(shadowTraffic, times(2)).mirror(eq("items"), uris.capture(), any(), any(), anyLong());
+        assertEquals(List.of(URI.create("http://localhost:9090/items/1"), URI.create("http://localhost:9090/items/3")),
+                uris.getAllValues());
+    }
+
+    @Test
+    void should_shed_search_while_admitting_booking_post_at_the_server_limit() throws Exception {
+        serverLimits.setInitialLimit(2);
+        serverLimits.setMinLimit(2);
+        serverLimits.setNormalShare(1.0);
+        serverLimits.setSheddableShare(0.5);
+        UpstreamIsolation isolation = isolation(new ConcurrencyLimitProperties(), shadowTraffic);
+        BaseClient users = new BaseClient(restTemplate(), isolation, "users");
+        BaseClient items = new BaseClient(restTemplate(), isolation, "items") {
+            @Override
+            protected RequestPriority priority(HttpMethod method, String path) {
+                return path.startsWith("/items/search") ? RequestPriority.SHEDDABLE : super.priority(method, path);
+            }
+        };
+        BaseClient bookings = new BaseClient(restTemplate(), isolation, "bookings");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<Object>> user = executor.submit(() -> users.get("/users/1", 1L));
+            awaitUpstreamCalls(1);
+
+            assertThrows(LoadSheddingException.class, () -> items.get("/items/search?text=drill", 1L));
+
+            Future<ResponseEntity<Object>> booking = executor.submit(() -> bookings.post("/bookings", 1L,
+                    Map.of("itemId", 1)));
+            awaitUpstreamCalls(2);
+            release.countDown();
+            assertEquals(HttpStatus.OK, user.get(5, TimeUnit.SECONDS).getStatusCode());
+            assertEquals(HttpStatus.OK, booking.get(5, TimeUnit.SECONDS).getStatusCode());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1, meterRegistry.counter("gateway.concurrency.shed", "route", "server", "priority", "sheddable")
+                .count());
+        assertEquals(0, meterRegistry.counter("gateway.concurrency.shed", "route", "items", "priority", "sheddable")
+                .count());
+    }
+
+    @Test
+    void should_not_shed_healthy_upstream_under_load() throws Exception {
+        ConcurrencyLimitProperties limits = new ConcurrencyLimitProperties();
+        limits.setEnabled(true);
+        BaseClient client = new BaseClient(restTemplate(), isolation(limits, shadowTraffic), "items");
+        int concurrency = 24;
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<ResponseEntity<Object>>> responses = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                String path = "/items/" + i;
+                responses.add(executor.submit(() -> client.get(path, 1L)));
+            }
+            awaitUpstreamCalls(concurrency);
+            release.countDown();
+            for (Future<ResponseEntity<Object>> response : responses) {
+                assertEquals(HttpStatus.OK, response.get(5, TimeUnit.SECONDS).getStatusCode());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, meterRegistry.find("gateway.concurrency.shed").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum());
+    }
+
+    private void awaitUpstreamCalls(int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (upstreamCalls.get() < calls && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(calls, upstreamCalls.get());
+    }
+
+    private UpstreamIsolation isolation(ConcurrencyLimitProperties limits, ShadowTraffic shadow) {
+        return new UpstreamIsolation(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), limits,
+                serverLimits, new DeadlineProperties(), shadow,
+                new RequestCoalescer(new CoalescingProperties(), meterRegistry), meterRegistry);
+    }
+
+    private RestTemplate restTemplate() {
+        RestTemplate rest = new RestTemplate((uri, method) -> {
+            upstreamCalls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            request.setResponse(new MockClientHttpResponse("{}".getBytes(StandardCharsets.UTF_8), upstreamStatus));
+            return request;
+        });
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:9090"));
+        return rest;
+    }
+}
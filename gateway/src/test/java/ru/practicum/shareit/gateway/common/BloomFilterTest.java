@@ -0,0 +1,25 @@
+package ru.practicum.shareit.gateway.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void should_contain_every_inserted_value() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        LongStream.rangeClosed(1, 10_000).forEach(filter::put);
+        assertTrue(LongStream.rangeClosed(1, 10_000).allMatch(filter::mightContain));
+    }
+
+    @Test
+    void should_keep_false_positives_near_configured_rate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        LongStream.rangeClosed(1, 10_000).forEach(filter::put);
+        long falsePositives = LongStream.rangeClosed(1_000_001, 1_100_000).filter(filter::mightContain).count();
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.gateway.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 10_000;
+    private static final List<String> KEY_LIST = IntStream.range(0, KEYS)
+            .mapToObj(i -> "/items/" + i)
+            .collect(Collectors.toList());
+
+    @Test
+    void should_spread_keys_evenly_across_nodes() {
+        ConsistentHashRing<String> ring = ring(List.of("a", "b", "c", "d"));
+        Map<String, Long> counts = KEY_LIST.stream()
+                .collect(Collectors.groupingBy(key -> ring.route(key, node -> true), Collectors.counting()));
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(count > KEYS / 4 * 0.8 && count < KEYS / 4 * 1.2,
+                "Keys per node: " + counts));
+    }
+
+    @Test
+    void should_move_only_keys_of_removed_node() {
+        Map<String, String> before = owners(ring(List.of("a", "b", "c", "d")));
+        Map<String, String> after = owners(ring(List.of("a", "b", "c")));
+        KEY_LIST.forEach(key -> {
+            if (!before.get(key).equals("d")) {
+                assertEquals(before.get(key), after.get(key), key);
+            }
+        });
+    }
+
+    @Test
+    void should_move_about_one_share_of_keys_to_added_node() {
+        Map<String, String> before = owners(ring(List.of("a", "b", "c", "d")));
+        Map<String, String> after = owners(ring(List.of("a", "b", "c", "d", "e")));
+        long moved = KEY_LIST.stream().filter(key -> !before.get(key).equals(after.get(key))).count();
+        KEY_LIST.stream()
+                .filter(key -> !before.get(key).equals(after.get(key)))
+                .forEach(key -> assertEquals("e", after.get(key), key));
+        assertTrue(moved > KEYS / 5 * 0.8 && moved < KEYS / 5 * 1.2, "Moved keys: " + moved);
+    }
+
+    @Test
+    void should_route_around_ineligible_node_like_a_ring_without_it() {
+        ConsistentHashRing<String> ring = ring(List.of("a", "b", "c", "d"));
+        Map<String, String> without = owners(ring(List.of("a", "b", "c")));
+        KEY_LIST.forEach(key -> assertEquals(without.get(key), ring.route(key, node -> !node.equals("d")), key));
+    }
+
+    @Test
+    void should_fall_back_to_natural_owner_when_no_node_is_eligible() {
+        ConsistentHashRing<String> ring = ring(List.of("a", "b"));
+        KEY_LIST.stream().limit(100).forEach(key ->
+                assertEquals(ring.route(key, node -> true), ring.route(key, node -> false), key));
+    }
+
+    private static ConsistentHashRing<String> ring(List<String> nodes) {
+        return new ConsistentHashRing<>(nodes, Function.identity(), 160);
+    }
+
+    private static Map<String, String> owners(ConsistentHashRing<String> ring) {
+        Map<String, String> owners = new HashMap<>();
+        KEY_LIST.forEach(key -> owners.put(key, ring.route(key, node -> true)));
+        return owners;
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.gateway.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the bytes allocated per proxied {@code GET /bookings/owner} between the old {@code ResponseEntity<Object>}
+ * path, which parses the server's JSON into a Map/List tree and writes it again, and the byte pass-through that
+ * {@link BaseClient} uses now. Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class PassThroughAllocationBenchmarkTest {
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter(mapper);
+    private final ByteArrayHttpMessageConverter bytesConverter = new ByteArrayHttpMessageConverter();
+
+    @Test
+    void should_allocate_less_per_request_than_object_path() throws Exception {
+        for (int size : List.of(10, 100, 1000)) {
+            RestTemplate rest = restTemplate(mapper.writeValueAsBytes(bookings(size)));
+            long objectPath = allocatedPerRequest(() -> proxyAsObject(rest));
+            long passThrough = allocatedPerRequest(() -> proxyAsBytes(rest));
+            log.info("{} bookings: Object path {} bytes, pass-through {} bytes per request ({}%)", size,
+                    objectPath, passThrough, 100 * passThrough / objectPath);
+            assertThat(passThrough).isLessThan(objectPath);
+        }
+    }
+
+    private void proxyAsObject(RestTemplate rest) throws IOException {
+        ResponseEntity<Object> response = rest.exchange("/bookings/owner", HttpMethod.GET, request(), Object.class);
+        jsonConverter.write(response.getBody(), MediaType.APPLICATION_JSON, new DiscardingOutputMessage());
+    }
+
+    private void proxyAsBytes(RestTemplate rest) throws IOException {
+        ResponseEntity<byte[]> response = rest.exchange("/bookings/owner", HttpMethod.GET, request(), byte[].class);
+        DiscardingOutputMessage output = new DiscardingOutputMessage();
+        output.getHeaders().putAll(BaseClient.passThroughHeaders(response.getHeaders()));
+        bytesConverter.write(response.getBody(), MediaType.APPLICATION_JSON, output);
+    }
+
+    private static HttpEntity<Void> request() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set("X-Sharer-User-Id", "1");
+        return new HttpEntity<>(headers);
+    }
+
+    private RestTemplate restTemplate(byte[] body) {
+        RestTemplate rest = new RestTemplate((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setETag("\"1\"");
+            request.setResponse(response);
+            return request;
+        });
+        rest.getMessageConverters().removeIf(MappingJackson2HttpMessageConverter.class::isInstance);
+        rest.getMessageConverters().add(jsonConverter);
+        return rest;
+    }
+
+    private static long allocatedPerRequest(Proxy proxy) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            proxy.run();
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            proxy.run();
+        }
+        return (threads.getThreadAllocatedBytes(thread) - before) / ITERATIONS;
+    }
+
+    private static List<Map<String, Object>> bookings(int count) {
+        LocalDateTime start = LocalDateTime.of(2023, 3, 1, 12, 0);
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> {
+                    Map<String, Object> booking = new LinkedHashMap<>();
+                    booking.put("id", id);
+                    booking.put("start", start.plusDays(id).toString());
+                    booking.put("end", start.plusDays(id + 1).toString());
+                    booking.put("status", "WAITING");
+                    booking.put("booker", Map.of("id", id % 7 + 1, "name", "booker" + id % 7,
+                            "email", "booker" + id % 7 + "@ya.ru"));
+                    booking.put("item", Map.of("id", id % 13 + 1, "name", "Дрель " + id % 13,
+                            "description", "Простая дрель", "available", true));
+                    return booking;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private interface Proxy {
+        void run() throws IOException;
+    }
+
+    private static class DiscardingOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import ru.practicum.shareit.gateway.exception.RateLimitExceededException;
+import ru.practicum.shareit.gateway.item.ItemController;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static ru.practicum.shareit.gateway.common.TokenBucketRateLimiterTest.limit;
+
+class RateLimitInterceptorTest {
+
+    private RateLimitInterceptor interceptor;
+    private ItemController controller;
+
+    @BeforeEach
+    void init() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getLimits().put("read", limit(2, 0.01));
+        properties.getLimits().put("write", limit(1, 0.01));
+        properties.getLimits().put("search", limit(1, 0.01));
+        interceptor = new RateLimitInterceptor(new TokenBucketRateLimiter(properties, new SimpleMeterRegistry()));
+        controller = mock(ItemController.class);
+    }
+
+    @Test
+    void should_charge_annotated_handler_to_its_own_limit() throws Exception {
+        HandlerMethod search = handler("search", long.class, String.class, int.class, int.class);
+        assertTrue(interceptor.preHandle(request("GET", "1"), new MockHttpServletResponse(), search));
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("GET", "1"), new MockHttpServletResponse(), search));
+        assertEquals("Rate limit 'search' exceeded", e.getMessage());
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+
+        HandlerMethod get = handler("get", long.class, long.class);
+        assertTrue(interceptor.preHandle(request("GET", "1"), new MockHttpServletResponse(), get));
+    }
+
+    @Test
+    void should_charge_unannotated_handlers_by_method() throws Exception {
+        HandlerMethod get = handler("get", long.class, long.class);
+        HandlerMethod update = handler("update", long.class, long.class, ItemDto.class);
+        assertTrue(interceptor.preHandle(request("GET", "1"), new MockHttpServletResponse(), get));
+        assertTrue(interceptor.preHandle(request("GET", "1"), new MockHttpServletResponse(), get));
+        assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("GET", "1"), new MockHttpServletResponse(), get));
+
+        assertTrue(interceptor.preHandle(request("PATCH", "1"), new MockHttpServletResponse(), update));
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("PATCH", "1"), new MockHttpServletResponse(), update));
+        assertEquals("Rate limit 'write' exceeded", e.getMessage());
+    }
+
+    @Test
+    void should_key_anonymous_requests_by_address_and_skip_non_handler_methods() throws Exception {
+        HandlerMethod get = handler("get", long.class, long.class);
+        MockHttpServletRequest first = request("GET", null);
+        first.setRemoteAddr("10.0.0.1");
+        MockHttpServletRequest second = request("GET", null);
+        second.setRemoteAddr("10.0.0.2");
+        for (int i = 0; i < 2; i++) {
+            assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), get));
+            assertTrue(interceptor.preHandle(second, new MockHttpServletResponse(), get));
+        }
+        assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(first, new MockHttpServletResponse(), get));
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), new Object()));
+    }
+
+    private HandlerMethod handler(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = ItemController.class.getDeclaredMethod(name, parameterTypes);
+        return new HandlerMethod(controller, method);
+    }
+
+    private static MockHttpServletRequest request(String method, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/items");
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", userId);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+
+    private CoalescingProperties properties;
+    private MeterRegistry meterRegistry;
+    private AtomicInteger upstreamCalls;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void init() {
+        properties = new CoalescingProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamCalls = new AtomicInteger();
+        release = new CountDownLatch(0);
+    }
+
+    @Test
+    void should_send_one_upstream_request_for_identical_concurrent_gets() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> body(coalescer.get(ITEM, 1L, upstream("item")))));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<String> response : responses) {
+                assertEquals("item", response.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(7, meterRegistry.counter("gateway.coalescing.requests", "result", "coalesced").count());
+    }
+
+    @Test
+    void should_not_coalesce_requests_of_different_users() {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        coalescer.get(ITEM, 1L, upstream("item"));
+        coalescer.get(ITEM, 2L, upstream("item"));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void should_call_upstream_every_time_when_disabled() {
+        properties.setEnabled(false);
+        RequestCoalescer disabled = new RequestCoalescer(properties, meterRegistry);
+        assertEquals("item", body(disabled.get(ITEM, 1L, upstream("item"))));
+        assertEquals("item", body(disabled.get(ITEM, 1L, upstream("item"))));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void should_give_followers_the_leader_failure() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        release = new CountDownLatch(1);
+        Supplier<ResponseEntity<byte[]>> failing = () -> {
+            upstreamCalls.incrementAndGet();
+            await(release);
+            throw new ResourceAccessException("connection reset", new IOException("connection reset"));
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<byte[]>> leader = executor.submit(() -> coalescer.get(ITEM, 1L, failing));
+            Thread.sleep(100);
+            Future<ResponseEntity<byte[]>> follower = executor.submit(() -> coalescer.get(ITEM, 1L, failing));
+            Thread.sleep(100);
+            release.countDown();
+            assertInstanceOf(ResourceAccessException.class, assertThrows(Exception.class, leader::get).getCause());
+            assertInstanceOf(ResourceAccessException.class, assertThrows(Exception.class, follower::get).getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void should_call_upstream_itself_when_leader_takes_longer_than_max_wait() throws Exception {
+        properties.setMaxWait(Duration.ofMillis(50));
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        CountDownLatch slow = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<byte[]>> leader = executor.submit(() -> coalescer.get(ITEM, 1L, () -> {
+                await(slow);
+                return response("slow");
+            }));
+            Thread.sleep(100);
+            assertEquals("item", body(coalescer.get(ITEM, 1L, upstream("item"))));
+            slow.countDown();
+            assertEquals("slow", body(leader.get(5, TimeUnit.SECONDS)));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, meterRegistry.counter("gateway.coalescing.requests", "result", "timeout").count());
+    }
+
+    private Supplier<ResponseEntity<byte[]>> upstream(String body) {
+        return () -> {
+            upstreamCalls.incrementAndGet();
+            await(release);
+            return response(body);
+        };
+    }
+
+    private static ResponseEntity<byte[]> response(String body) {
+        return ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Test latch was not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package ru.practicum.shareit.gateway.common;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import ru.practicum.shareit.common.VirtualThreadProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private List<Response> responses;
+    private AtomicInteger hits;
+    private CloseableHttpClient httpClient;
+    private List<Thread> requestThreads;
+    private HedgingProperties properties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() throws IOException {
+        responses = new CopyOnWriteArrayList<>();
+        hits = new AtomicInteger();
+        requestThreads = new CopyOnWriteArrayList<>();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", this::handle);
+        server.start();
+        httpClient = HttpClients.createDefault();
+        properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setMinSamples(1000);
+        properties.setMaxDelay(Duration.ofMillis(50));
+        properties.setBudgetRatio(1.0);
+        properties.setRetryBackoff(Duration.ofMillis(1));
+        properties.setRetryMaxBackoff(Duration.ofMillis(2));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        httpClient.close();
+    }
+
+    @Test
+    void should_send_fast_get_once_on_calling_thread() throws Exception {
+        properties.setMaxDelay(Duration.ofSeconds(2));
+        responses.add(new Response(0, 200, "item"));
+        RequestHedger hedger = hedger();
+        assertEquals("item", body(hedger.intercept(get(), new byte[0], null)));
+        assertEquals(1, hits.get());
+        assertEquals(List.of(Thread.currentThread()), requestThreads);
+        assertEquals(0, hedges());
+        hedger.destroy();
+    }
+
+    @Test
+    void should_answer_with_hedge_and_abort_slow_primary() throws Exception {
+        responses.add(new Response(3000, 200, "slow"));
+        responses.add(new Response(0, 200, "hedge"));
+        RequestHedger hedger = hedger();
+        long start = System.nanoTime();
+        assertEquals("hedge", body(hedger.intercept(get(), new byte[0], null)));
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+        assertEquals(2, hits.get());
+        assertEquals(1, hedges());
+        hedger.destroy();
+    }
+
+    @Test
+    void should_send_hedge_to_next_node_on_the_ring() throws Exception {
+        responses.add(new Response(3000, 200, "slow"));
+        AtomicInteger otherHits = new AtomicInteger();
+        HttpServer other = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        other.createContext("/", exchange -> {
+            otherHits.incrementAndGet();
+            respond(exchange, new Response(0, 200, "other node"));
+        });
+        other.createContext("/actuator/health", exchange -> respond(exchange, new Response(0, 200, "UP")));
+        server.createContext("/actuator/health", exchange -> respond(exchange, new Response(0, 200, "UP")));
+        other.start();
+        NodeRoutingProperties routing = new NodeRoutingProperties();
+        routing.setNodes(List.of(URI.create("http://localhost:" + server.getAddress().getPort()),
+                URI.create("http://localhost:" + other.getAddress().getPort())));
+        NodeRouter nodeRouter = new NodeRouter(routing, meterRegistry);
+        try {
+            RequestHedger hedger = hedger(nodeRouter);
+            assertEquals("other node", body(hedger.intercept(get(), new byte[0], null)));
+            assertEquals(1, hits.get());
+            assertEquals(1, otherHits.get());
+            hedger.destroy();
+        } finally {
+            nodeRouter.destroy();
+            other.stop(0);
+        }
+    }
+
+    @Test
+    void should_not_let_fast_server_error_beat_slow_success() throws Exception {
+        responses.add(new Response(300, 200, "slow"));
+        responses.add(new Response(0, 503, "unavailable"));
+        RequestHedger hedger = hedger();
+        ClientHttpResponse response = hedger.intercept(get(), new byte[0], null);
+        assertEquals(200, response.getRawStatusCode());
+        assertEquals("slow", body(response));
+        hedger.destroy();
+    }
+
+    @Test
+    void should_answer_with_hedge_when_primary_fails_with_server_error() throws Exception {
+        responses.add(new Response(150, 500, "error"));
+        responses.add(new Response(300, 200, "hedge"));
+        RequestHedger hedger = hedger();
+        ClientHttpResponse response = hedger.intercept(get(), new byte[0], null);
+        assertEquals(200, response.getRawStatusCode());
+        assertEquals("hedge", body(response));
+        hedger.destroy();
+    }
+
+    @Test
+    void should_return_primary_server_error_when_no_hedge_was_sent() throws Exception {
+        properties.setMaxDelay(Duration.ofSeconds(2));
+        responses.add(new Response(0, 503, "unavailable"));
+        RequestHedger hedger = hedger();
+        assertEquals(503, hedger.intercept(get(), new byte[0], null).getRawStatusCode());
+        assertEquals(1, hits.get());
+        hedger.destroy();
+    }
+
+    @Test
+    void should_hedge_only_with_enough_budget() throws Exception {
+        properties.setBudgetRatio(0.5);
+        properties.setBudgetBurst(1);
+        responses.add(new Response(150, 200, "first"));
+        responses.add(new Response(150, 200, "second"));
+        responses.add(new Response(0, 200, "hedge"));
+        RequestHedger hedger = hedger();
+        assertEquals("first", body(hedger.intercept(get(), new byte[0], null)));
+        assertEquals(0, hedges());
+        assertEquals("hedge", body(hedger.intercept(get(), new byte[0], null)));
+        assertEquals(1, hedges());
+        assertEquals(3, hits.get());
+        hedger.destroy();
+    }
+
+    @Test
+    void should_time_out_at_request_deadline_instead_of_read_timeout() throws Exception {
+        properties.setMaxDelay(Duration.ofSeconds(2));
+        responses.add(new Response(3000, 200, "slow"));
+        RequestHedger hedger = hedger();
+        MockClientHttpRequest request = get();
+        request.getHeaders().set(BaseClient.REQUEST_TIMEOUT_HEADER, "200");
+        long start = System.nanoTime();
+        assertThrows(SocketTimeoutException.class, () -> hedger.intercept(request, new byte[0], null));
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        assertEquals(0, hedges());
+        hedger.destroy();
+    }
+
+    @Test
+    void should_retry_refused_connections_with_capped_backoff() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        RequestHedger hedger = hedger();
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+                URI.create("http://localhost:" + closedPort + "/items/1"));
+        assertThrows(ConnectException.class, () -> hedger.intercept(request, new byte[0], null));
+        assertEquals(2, meterRegistry.counter("gateway.hedging.requests", "type", "retry").count());
+
+        properties.setRetryBackoff(Duration.ofMillis(50));
+        properties.setRetryMaxBackoff(Duration.ofMillis(500));
+        assertEquals(50, hedger.backoffCapMillis(1));
+        assertEquals(100, hedger.backoffCapMillis(2));
+        assertEquals(400, hedger.backoffCapMillis(4));
+        assertEquals(500, hedger.backoffCapMillis(5));
+        assertEquals(500, hedger.backoffCapMillis(40));
+        hedger.destroy();
+    }
+
+    @Test
+    void should_pass_writes_to_next_interceptor() throws Exception {
+        RequestHedger hedger = hedger();
+        MockClientHttpRequest post = new MockClientHttpRequest(HttpMethod.POST, URI.create("/items"));
+        ClientHttpResponse response = hedger.intercept(post, new byte[0], (request, body) ->
+                new MockClientHttpResponse("created".getBytes(StandardCharsets.UTF_8), HttpStatus.CREATED));
+        assertEquals(201, response.getRawStatusCode());
+        assertEquals(0, hits.get());
+        hedger.destroy();
+    }
+
+    private RequestHedger hedger() {
+        return hedger(new NodeRouter(new NodeRoutingProperties(), meterRegistry));
+    }
+
+    private RequestHedger hedger(NodeRouter nodeRouter) {
+        ClientHttpRequestFactory abortable = new AbortableClientHttpRequestFactory(httpClient);
+        ClientHttpRequestFactory recording = (uri, method) -> {
+            requestThreads.add(Thread.currentThread());
+            return abortable.createRequest(uri, method);
+        };
+        return new RequestHedger(recording, nodeRouter, properties, new VirtualThreadProperties(), meterRegistry);
+    }
+
+    private MockClientHttpRequest get() {
+        return new MockClientHttpRequest(HttpMethod.GET,
+                URI.create("http://localhost:" + server.getAddress().getPort() + "/items/1"));
+    }
+
+    private double hedges() {
+        return meterRegistry.counter("gateway.hedging.requests", "type", "hedge").count();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        respond(exchange, responses.get(Math.min(hits.getAndIncrement(), responses.size() - 1)));
+    }
+
+    private static void respond(HttpExchange exchange, Response response) throws IOException {
+        try {
+            Thread.sleep(response.delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String body(ClientHttpResponse response) throws IOException {
+        return StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static class Response {
+        private final long delayMillis;
+        private final int status;
+        private final String body;
+
+        Response(long delayMillis, int status, String body) {
+            this.delayMillis = delayMillis;
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
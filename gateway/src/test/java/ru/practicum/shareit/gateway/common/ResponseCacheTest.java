@@ -0,0 +1,135 @@
+package ru.practicum.shareit.gateway.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private ResponseCacheProperties properties;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void init() {
+        properties = new ResponseCacheProperties();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void should_serve_repeated_get_from_cache() {
+        ResponseCache cache = cache();
+        ResponseEntity<Object> first = cache.get(ResponseCache.ITEMS, 1, 10L, loader("item"));
+        ResponseEntity<Object> second = cache.get(ResponseCache.ITEMS, 1, 10L, loader("other"));
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void should_cache_per_user() {
+        ResponseCache cache = cache();
+        cache.get(ResponseCache.ITEMS, 1, 10L, loader("owner view"));
+        ResponseEntity<Object> other = cache.get(ResponseCache.ITEMS, 1, 20L, loader("booker view"));
+        assertEquals("booker view", body(other));
+        assertEquals("owner view", body(cache.get(ResponseCache.ITEMS, 1, 10L, loader("reloaded"))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void should_not_cache_errors() {
+        ResponseCache cache = cache();
+        cache.get(ResponseCache.ITEMS, 1, 10L, () -> {
+            loads.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        });
+        assertEquals("item", body(cache.get(ResponseCache.ITEMS, 1, 10L, loader("item"))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void should_evict_all_users_entries_of_one_id_only() {
+        ResponseCache cache = cache();
+        cache.get(ResponseCache.ITEMS, 1, 10L, loader("item 1"));
+        cache.get(ResponseCache.ITEMS, 1, 20L, loader("item 1"));
+        cache.get(ResponseCache.ITEMS, 2, 10L, loader("item 2"));
+        cache.get(ResponseCache.REQUESTS, 1, 10L, loader("request 1"));
+
+        cache.evict(ResponseCache.ITEMS, 1);
+
+        assertEquals("updated", body(cache.get(ResponseCache.ITEMS, 1, 10L, loader("updated"))));
+        assertEquals("updated", body(cache.get(ResponseCache.ITEMS, 1, 20L, loader("updated"))));
+        assertEquals("item 2", body(cache.get(ResponseCache.ITEMS, 2, 10L, loader("updated"))));
+        assertEquals("request 1", body(cache.get(ResponseCache.REQUESTS, 1, 10L, loader("updated"))));
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void should_evict_all_entries_of_one_entity() {
+        ResponseCache cache = cache();
+        cache.get(ResponseCache.ITEMS, 1, 10L, loader("item 1"));
+        cache.get(ResponseCache.ITEMS, 2, 20L, loader("item 2"));
+        cache.get(ResponseCache.USERS, 1, null, loader("user 1"));
+
+        cache.evictAll(ResponseCache.ITEMS);
+
+        assertEquals("updated", body(cache.get(ResponseCache.ITEMS, 1, 10L, loader("updated"))));
+        assertEquals("updated", body(cache.get(ResponseCache.ITEMS, 2, 20L, loader("updated"))));
+        assertEquals("user 1", body(cache.get(ResponseCache.USERS, 1, null, loader("updated"))));
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void should_not_cache_response_loaded_while_evicting() {
+        ResponseCache cache = cache();
+        cache.get(ResponseCache.ITEMS, 1, 10L, () -> {
+            ResponseEntity<Object> stale = loader("stale").get();
+            cache.evict(ResponseCache.ITEMS, 1);
+            return stale;
+        });
+        assertEquals("fresh", body(cache.get(ResponseCache.ITEMS, 1, 10L, loader("fresh"))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void should_evict_entity_referenced_by_response() {
+        ResponseCache cache = cache();
+        cache.get(ResponseCache.ITEMS, 7, 10L, loader("item 7"));
+        ResponseEntity<Object> booking = ResponseEntity.ok("{\"item\":{\"id\":7}}".getBytes(StandardCharsets.UTF_8));
+
+        cache.evictReferenced(ResponseCache.ITEMS, booking, "item", "id");
+
+        assertEquals("updated", body(cache.get(ResponseCache.ITEMS, 7, 10L, loader("updated"))));
+    }
+
+    @Test
+    void should_always_load_when_disabled() {
+        properties.setEnabled(false);
+        ResponseCache cache = cache();
+        cache.get(ResponseCache.ITEMS, 1, 10L, loader("item"));
+        cache.get(ResponseCache.ITEMS, 1, 10L, loader("item"));
+        assertEquals(2, loads.get());
+    }
+
+    private ResponseCache cache() {
+        return new ResponseCache(properties, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    private Supplier<ResponseEntity<Object>> loader(String body) {
+        return () -> {
+            loads.incrementAndGet();
+            return ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.gateway.common;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShadowTrafficTest {
+
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer candidate;
+    private SimpleMeterRegistry meterRegistry;
+    private ShadowTraffic shadowTraffic;
+
+    @BeforeEach
+    void init() throws IOException {
+        candidate = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        candidate.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        candidate.start();
+        meterRegistry = new SimpleMeterRegistry();
+        ShadowProperties properties = new ShadowProperties();
+        properties.setEnabled(true);
+        properties.setUrl(URI.create("http://localhost:" + candidate.getAddress().getPort()));
+        shadowTraffic = new ShadowTraffic(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        shadowTraffic.destroy();
+        candidate.stop(0);
+    }
+
+    @Test
+    void should_record_per_request_latency_difference() throws Exception {
+        long primaryNanos = TimeUnit.SECONDS.toNanos(2);
+        shadowTraffic.mirror("items", URI.create("http://server/items/1"), new HttpHeaders(),
+                ResponseEntity.ok(BODY), primaryNanos);
+
+        awaitMatch();
+        DistributionSummary faster = meterRegistry.find("gateway.shadow.latency.difference")
+                .tags("route", "items", "shadow", "faster")
+                .summary();
+        assertNotNull(faster);
+        assertEquals(1, faster.count());
+        assertTrue(faster.totalAmount() > 1000 && faster.totalAmount() <= 2000, String.valueOf(faster.totalAmount()));
+        assertNull(meterRegistry.find("gateway.shadow.latency.difference").tags("shadow", "slower").summary());
+    }
+
+    private void awaitMatch() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("gateway.shadow.responses").tags("result", "match").counter() == null) {
+            assertTrue(System.nanoTime() < deadline, "Mirrored request was not compared");
+            Thread.sleep(10);
+        }
+    }
+}
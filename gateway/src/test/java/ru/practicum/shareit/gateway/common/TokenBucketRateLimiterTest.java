@@ -0,0 +1,75 @@
+package ru.practicum.shareit.gateway.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private RateLimitProperties properties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        properties = new RateLimitProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        properties.getLimits().put("slow", limit(3, 0.01));
+        properties.getLimits().put("fast", limit(1, 1000));
+    }
+
+    @Test
+    void should_allow_burst_up_to_capacity_then_reject() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("slow", "1"));
+        }
+        long wait = limiter.tryAcquire("slow", "1");
+        assertTrue(wait > TimeUnit.SECONDS.toNanos(90) && wait <= TimeUnit.SECONDS.toNanos(100), "wait " + wait);
+        assertEquals(1, meterRegistry.counter("gateway.rate-limit.rejected", "limit", "slow").count());
+    }
+
+    @Test
+    void should_keep_separate_buckets_per_client_and_limit() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("slow", "1");
+        }
+        assertTrue(limiter.tryAcquire("slow", "1") > 0);
+        assertEquals(0, limiter.tryAcquire("slow", "2"));
+        assertEquals(0, limiter.tryAcquire("fast", "1"));
+    }
+
+    @Test
+    void should_refill_after_emission_interval() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties, meterRegistry);
+        assertEquals(0, limiter.tryAcquire("fast", "1"));
+        assertTrue(limiter.tryAcquire("fast", "1") > 0);
+        Thread.sleep(5);
+        assertEquals(0, limiter.tryAcquire("fast", "1"));
+    }
+
+    @Test
+    void should_not_limit_unknown_limits_or_when_disabled() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties, meterRegistry);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("unknown", "1"));
+        }
+        properties.setEnabled(false);
+        TokenBucketRateLimiter disabled = new TokenBucketRateLimiter(properties, meterRegistry);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, disabled.tryAcquire("slow", "1"));
+        }
+    }
+
+    static RateLimitProperties.Limit limit(long capacity, double refillPerSecond) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+}
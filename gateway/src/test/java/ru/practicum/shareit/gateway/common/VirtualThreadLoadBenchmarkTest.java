@@ -0,0 +1,190 @@
+package ru.practicum.shareit.gateway.common;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import ru.practicum.shareit.gateway.ShareItGateway;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Finds the highest number of concurrent clients the gateway serves without errors and with a p99 latency within one
+ * and a half times the upstream latency, on platform request threads and on virtual threads. The upstream is a stub
+ * that answers every request after {@link #UPSTREAM_LATENCY}, so the gateway threads spend their time blocked exactly
+ * as they do in front of the server. Admission control, caching and the other features that would answer or reject
+ * requests before they block are switched off, and both modes get the same upstream pool and bulkheads, so the thread
+ * model is the only difference. The upstream latency is long enough for the request threads, not the CPU, to run out
+ * first even on a single core. The virtual-thread half needs a Java 21+ runtime and is skipped elsewhere. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+    private static final Duration UPSTREAM_LATENCY = Duration.ofSeconds(1);
+    private static final Duration STEP_DURATION = Duration.ofSeconds(8);
+    private static final List<Integer> CONCURRENCY = List.of(50, 100, 200, 400, 800, 1600);
+    private static final String[] COMMON_ARGS = {
+            "--server.port=0",
+            "--shareit-server.client.max-total=2000",
+            "--shareit-server.client.max-per-route=2000",
+            "--shareit-server.client.compression=false",
+            "--resilience4j.bulkhead.configs.default.max-concurrent-calls=2000",
+            "--shareit-gateway.concurrency-limit.enabled=false",
+            "--shareit-gateway.rate-limit.enabled=false",
+            "--shareit-gateway.known-users.enabled=false",
+            "--shareit-gateway.cache.enabled=false",
+            "--shareit-gateway.coalescing.enabled=false",
+            "--shareit-gateway.hedging.enabled=false",
+            "--shareit-gateway.compression.enabled=false",
+            "--logging.level.org.springframework.web.client.RestTemplate=INFO",
+            "--logging.level.ru.practicum.shareit.gateway.item=WARN"
+    };
+
+    private HttpServer upstream;
+    private ExecutorService upstreamExecutor;
+    private HttpClient client;
+
+    @BeforeEach
+    void init() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        upstreamExecutor = Executors.newCachedThreadPool();
+        upstream.setExecutor(upstreamExecutor);
+        upstream.createContext("/", VirtualThreadLoadBenchmarkTest::handle);
+        upstream.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+        upstreamExecutor.shutdownNow();
+    }
+
+    @Test
+    void should_sustain_at_least_platform_concurrency_on_virtual_threads() throws Exception {
+        int platform = maxSustainableConcurrency("platform");
+        log.info("Platform threads: max sustainable concurrency {}", platform);
+        assumeTrue(Runtime.version().feature() >= 21,
+                "Virtual threads need Java 21 or newer, running on Java " + Runtime.version());
+        int virtual = maxSustainableConcurrency("virtual-threads");
+        log.info("Virtual threads: max sustainable concurrency {} (platform threads: {})", virtual, platform);
+        assertThat(virtual).isGreaterThanOrEqualTo(platform);
+    }
+
+    private int maxSustainableConcurrency(String profile) throws Exception {
+        List<String> args = new ArrayList<>(List.of(COMMON_ARGS));
+        args.add("--shareit-server.url=http://localhost:" + upstream.getAddress().getPort());
+        try (ServletWebServerApplicationContext gateway = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(ShareItGateway.class)
+                        .profiles(profile)
+                        .run(args.toArray(String[]::new))) {
+            URI items = URI.create("http://localhost:" + gateway.getWebServer().getPort() + "/items?from=0&size=10");
+            run(items, CONCURRENCY.get(0), STEP_DURATION);
+            int sustained = 0;
+            for (int concurrency : CONCURRENCY) {
+                Step step = run(items, concurrency, STEP_DURATION);
+                log.info("{}: {} clients, {} requests/s, p99 {} ms, {} errors", profile, concurrency,
+                        step.throughput(), step.p99Millis(), step.errors);
+                if (step.errors > 0 || step.p99Millis() > UPSTREAM_LATENCY.toMillis() * 3 / 2) {
+                    break;
+                }
+                sustained = concurrency;
+            }
+            return sustained;
+        }
+    }
+
+    private Step run(URI uri, int concurrency, Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        List<CompletableFuture<Void>> clients = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("X-Sharer-User-Id", String.valueOf(i + 1))
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+            clients.add(loop(request, deadline, latencies, errors));
+        }
+        CompletableFuture.allOf(clients.toArray(CompletableFuture[]::new)).join();
+        return new Step(latencies, errors.get(), duration);
+    }
+
+    private CompletableFuture<Void> loop(HttpRequest request, long deadline, ConcurrentLinkedQueue<Long> latencies,
+                                         AtomicLong errors) {
+        long start = System.nanoTime();
+        if (start >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, e) -> {
+                    latencies.add(System.nanoTime() - start);
+                    if (e != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(request, deadline, latencies, errors));
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(UPSTREAM_LATENCY.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static class Step {
+        private final long[] latencies;
+        private final long errors;
+        private final Duration duration;
+
+        Step(ConcurrentLinkedQueue<Long> latencies, long errors, Duration duration) {
+            this.latencies = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            this.errors = errors;
+            this.duration = duration;
+        }
+
+        long throughput() {
+            return latencies.length / Math.max(1, duration.toSeconds());
+        }
+
+        long p99Millis() {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            return Duration.ofNanos(latencies[(int) (latencies.length * 0.99)]).toMillis();
+        }
+    }
+}
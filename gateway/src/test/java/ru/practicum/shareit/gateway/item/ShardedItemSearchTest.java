@@ -0,0 +1,204 @@
+package ru.practicum.shareit.gateway.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.client.methods.HttpGet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import ru.practicum.shareit.common.VirtualThreadProperties;
+import ru.practicum.shareit.gateway.common.AbortableClientHttpRequestFactory;
+import ru.practicum.shareit.gateway.common.CoalescingProperties;
+import ru.practicum.shareit.gateway.common.ConcurrencyLimitProperties;
+import ru.practicum.shareit.gateway.common.DeadlineProperties;
+import ru.practicum.shareit.gateway.common.RequestCoalescer;
+import ru.practicum.shareit.gateway.common.RequestPriority;
+import ru.practicum.shareit.gateway.common.SearchShardProperties;
+import ru.practicum.shareit.gateway.common.ServerConcurrencyLimitProperties;
+import ru.practicum.shareit.gateway.common.ShadowTraffic;
+import ru.practicum.shareit.gateway.common.UpstreamIsolation;
+import ru.practicum.shareit.gateway.exception.LoadSheddingException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ShardedItemSearchTest {
+
+    private static final URI FIRST = URI.create("http://shard-1");
+    private static final URI SECOND = URI.create("http://shard-2");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Set<String> calledHosts = ConcurrentHashMap.newKeySet();
+    private final ConcurrencyLimitProperties limits = new ConcurrencyLimitProperties();
+    private final SearchShardProperties shardProperties = new SearchShardProperties();
+    private final CountDownLatch aborted = new CountDownLatch(1);
+    private String slowHost;
+    private UpstreamIsolation isolation;
+    private ShardedItemSearch search;
+
+    @AfterEach
+    void tearDown() {
+        if (search != null) {
+            search.destroy();
+        }
+    }
+
+    @Test
+    void should_merge_by_score_then_id_skipping_duplicates() {
+        List<JsonNode> first = List.of(item(3, 0.9), item(1, 0.5), item(7, 0.1));
+        List<JsonNode> second = List.of(item(2, 0.9), item(1, 0.5), item(4, 0.3));
+
+        List<JsonNode> page = ShardedItemSearch.merge(List.of(first, second), 0, 10);
+
+        assertEquals(List.of(2L, 3L, 1L, 4L, 7L), ids(page));
+    }
+
+    @Test
+    void should_skip_offset_unique_items_and_stop_at_size() {
+        List<JsonNode> first = List.of(item(1, 0.8), item(3, 0.6), item(5, 0.4));
+        List<JsonNode> second = List.of(item(1, 0.8), item(2, 0.7), item(4, 0.5));
+
+        List<JsonNode> page = ShardedItemSearch.merge(List.of(first, second), 2, 2);
+
+        assertEquals(List.of(3L, 4L), ids(page));
+    }
+
+    @Test
+    void should_rank_items_without_score_by_id() {
+        List<JsonNode> first = List.of(objectMapper.createObjectNode().put("id", 4));
+        List<JsonNode> second = List.of(objectMapper.createObjectNode().put("id", 2),
+                objectMapper.createObjectNode().put("id", 6));
+
+        List<JsonNode> page = ShardedItemSearch.merge(List.of(first, List.of(), second), 0, 10);
+
+        assertEquals(List.of(2L, 4L, 6L), ids(page));
+    }
+
+    @Test
+    void should_skip_shard_with_open_circuit_breaker() throws Exception {
+        search = search();
+        isolation.circuitBreaker("search:" + SECOND).transitionToOpenState();
+
+        ResponseEntity<Object> response = search.search(1L, "drill", 0, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("1/2", response.getHeaders().getFirst(ShardedItemSearch.SHARDS_HEADER));
+        assertEquals("true", response.getHeaders().getFirst(ShardedItemSearch.PARTIAL_RESULTS_HEADER));
+        assertEquals(1, objectMapper.readTree((byte[]) response.getBody()).size());
+        assertEquals(Set.of("shard-1"), calledHosts);
+    }
+
+    @Test
+    void should_shed_search_when_every_shard_is_at_its_limit() {
+        limits.setEnabled(true);
+        limits.setInitialLimit(1);
+        limits.setMinLimit(1);
+        search = search();
+        assertTrue(isolation.concurrencyLimiter("search:" + FIRST).tryAcquire(RequestPriority.CRITICAL));
+        assertTrue(isolation.concurrencyLimiter("search:" + SECOND).tryAcquire(RequestPriority.CRITICAL));
+
+        assertThrows(LoadSheddingException.class, () -> search.search(1L, "drill", 0, 10));
+        assertTrue(calledHosts.isEmpty());
+    }
+
+    @Test
+    void should_answer_without_slow_shard_and_abort_its_call() throws Exception {
+        slowHost = "shard-2";
+        shardProperties.setTimeout(Duration.ofMillis(200));
+        search = search();
+
+        ResponseEntity<Object> response = search.search(1L, "drill", 0, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("1/2", response.getHeaders().getFirst(ShardedItemSearch.SHARDS_HEADER));
+        assertEquals("true", response.getHeaders().getFirst(ShardedItemSearch.PARTIAL_RESULTS_HEADER));
+        JsonNode items = objectMapper.readTree((byte[]) response.getBody());
+        assertEquals(1, items.size());
+        assertEquals(1, items.get(0).path("id").asLong());
+        assertEquals(1, meterRegistry.get("gateway.search.shards")
+                .tag("shard", SECOND.toString()).tag("outcome", "timeout").timer().count());
+        assertTrue(aborted.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlight(SECOND) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, inFlight(SECOND));
+    }
+
+    private double inFlight(URI shard) {
+        return meterRegistry.get("gateway.concurrency.in-flight").tag("route", "search:" + shard).gauge().value();
+    }
+
+    private ShardedItemSearch search() {
+        SearchShardProperties properties = shardProperties;
+        properties.setShards(List.of(FIRST, SECOND));
+        isolation = new UpstreamIsolation(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), limits,
+                new ServerConcurrencyLimitProperties(), new DeadlineProperties(), mock(ShadowTraffic.class),
+                new RequestCoalescer(new CoalescingProperties(), meterRegistry), meterRegistry);
+        return new ShardedItemSearch(requestFactory(), properties, new VirtualThreadProperties(), isolation,
+                meterRegistry);
+    }
+
+    /**
+     * Answers at once, except for {@code slowHost}, which answers only when its call is aborted, with an I/O error.
+     */
+    private ClientHttpRequestFactory requestFactory() {
+        return (uri, method) -> {
+            calledHosts.add(uri.getHost());
+            if (uri.getHost().equals(slowHost)) {
+                HttpGet httpGet = new HttpGet(uri);
+                MockClientHttpRequest request = new MockClientHttpRequest(method, uri) {
+                    @Override
+                    protected ClientHttpResponse executeInternal() throws IOException {
+                        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+                        while (!httpGet.isAborted() && System.nanoTime() < deadline) {
+                            try {
+                                Thread.sleep(5);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new InterruptedIOException();
+                            }
+                        }
+                        aborted.countDown();
+                        throw new IOException("Connection aborted");
+                    }
+                };
+                return new AbortableClientHttpRequestFactory.AbortableClientHttpRequest(request, httpGet);
+            }
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            String body = "[{\"id\":" + (uri.getHost().equals("shard-1") ? 1 : 2) + ",\"score\":0.5}]";
+            request.setResponse(new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+            return request;
+        };
+    }
+
+    private JsonNode item(long id, double score) {
+        return objectMapper.createObjectNode().put("id", id).put("score", score);
+    }
+
+    private static List<Long> ids(List<JsonNode> items) {
+        return items.stream().map(item -> item.path("id").asLong()).collect(Collectors.toList());
+    }
+}
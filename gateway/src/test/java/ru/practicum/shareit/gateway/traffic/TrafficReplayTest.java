@@ -0,0 +1,60 @@
+package ru.practicum.shareit.gateway.traffic;
+
+import com.sun.net.httpserver.HttpServer;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficReplayTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void should_measure_latency_from_when_request_was_due() throws Exception {
+        List<TrafficRecord> records = IntStream.range(0, 5)
+                .mapToObj(i -> new TrafficRecord(1_000, 100_000, 200, "GET", "/items/" + i, 1L, new byte[0]))
+                .collect(Collectors.toList());
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort());
+        TrafficReplay.Report report = new TrafficReplay(uri, 1.0, 1).replay(records);
+        Histogram replayed = report.getReplayed("GET /items");
+        assertEquals(5, replayed.getTotalCount());
+        assertTrue(replayed.getMaxValue() >= 450_000, "Max latency: " + replayed.getMaxValue() + " us");
+        assertEquals(4, report.getLate());
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.gateway.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class KnownUsersLoaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UserClient userClient = mock(UserClient.class);
+    private final KnownUsers knownUsers = mock(KnownUsers.class);
+
+    @Test
+    void should_load_user_ids_page_by_page() throws Exception {
+        KnownUsersProperties properties = new KnownUsersProperties();
+        properties.setPageSize(2);
+        when(userClient.getIds(0, 2)).thenReturn(page(1, 2));
+        when(userClient.getIds(2, 2)).thenReturn(page(3, 5));
+        when(userClient.getIds(5, 2)).thenReturn(page(8));
+        new KnownUsersLoader(userClient, knownUsers, objectMapper, properties).load();
+        ArgumentCaptor<long[]> userIds = ArgumentCaptor.forClass(long[].class);
+        verify(knownUsers).reload(userIds.capture());
+        assertArrayEquals(new long[]{1, 2, 3, 5, 8}, userIds.getValue());
+    }
+
+    @Test
+    void should_keep_previous_snapshot_when_a_page_fails() throws Exception {
+        KnownUsersProperties properties = new KnownUsersProperties();
+        properties.setPageSize(2);
+        when(userClient.getIds(0, 2)).thenReturn(page(1, 2));
+        when(userClient.getIds(2, 2)).thenReturn(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        new KnownUsersLoader(userClient, knownUsers, objectMapper, properties).load();
+        verify(knownUsers, never()).reload(any());
+    }
+
+    private ResponseEntity<Object> page(long... userIds) throws Exception {
+        return ResponseEntity.ok(objectMapper.writeValueAsBytes(userIds));
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.gateway.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.gateway.user.KnownUsers.Membership.*;
+
+class KnownUsersTest {
+
+    private KnownUsersProperties properties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        properties = new KnownUsersProperties();
+        properties.setExpectedUsers(1000);
+        properties.setFalsePositiveRate(0.0001);
+        properties.setMaxIdAhead(1000);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void should_let_everyone_through_before_first_load() {
+        assertEquals(POSSIBLE, knownUsers().check(42));
+    }
+
+    @Test
+    void should_reject_missing_ids_below_watermark_and_cache_them() {
+        KnownUsers knownUsers = loaded();
+        assertEquals(POSSIBLE, knownUsers.check(41));
+        assertEquals(ABSENT, knownUsers.check(42));
+        assertEquals(ABSENT, knownUsers.check(42));
+        assertEquals(ABSENT, knownUsers.check(-1));
+        assertEquals(3, meterRegistry.counter("gateway.known-users.rejected").count());
+    }
+
+    @Test
+    void should_forget_negative_entry_when_user_is_created() {
+        KnownUsers knownUsers = loaded();
+        knownUsers.markMissing(150);
+        assertEquals(ABSENT, knownUsers.check(150));
+        knownUsers.add(150);
+        assertEquals(POSSIBLE, knownUsers.check(150));
+    }
+
+    @Test
+    void should_reject_ids_far_beyond_newest_known_user() {
+        KnownUsers knownUsers = loaded();
+        assertEquals(UNVERIFIED, knownUsers.check(1100));
+        assertEquals(ABSENT, knownUsers.check(1101));
+        knownUsers.add(500);
+        assertEquals(UNVERIFIED, knownUsers.check(1500));
+    }
+
+    @Test
+    void should_stop_upstream_lookups_when_budget_is_spent() {
+        properties.setLookupsPerSecond(2);
+        KnownUsers knownUsers = loaded();
+        assertEquals(UNVERIFIED, knownUsers.check(201));
+        assertEquals(UNVERIFIED, knownUsers.check(202));
+        assertEquals(POSSIBLE, knownUsers.check(203));
+        assertEquals(1, meterRegistry.counter("gateway.known-users.skipped-lookups").count());
+    }
+
+    private KnownUsers knownUsers() {
+        return new KnownUsers(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    private KnownUsers loaded() {
+        KnownUsers knownUsers = knownUsers();
+        long[] userIds = LongStream.rangeClosed(1, 100).filter(id -> id != 42).toArray();
+        knownUsers.reload(userIds);
+        knownUsers.reload(userIds);
+        return knownUsers;
+    }
+}
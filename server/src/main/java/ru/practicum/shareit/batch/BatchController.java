@@ -0,0 +1,33 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping(path = "/batch")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class BatchController {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_REQUESTS = 20;
+    private final BatchService batchService;
+
+    @PostMapping
+    List<BatchResponseDto> execute(@RequestHeader(USER_HEADER) long userId,
+                                   @RequestBody @NotEmpty @Size(max = MAX_REQUESTS) List<BatchRequestDto> requests) {
+        log.info("Executing batch of " + requests.size() + " requests of user with ID: '" + userId + "'");
+        return batchService.execute(userId, requests);
+    }
+}
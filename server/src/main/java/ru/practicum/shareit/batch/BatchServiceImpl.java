@@ -0,0 +1,32 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@ConditionalOnWebApplication
+@RequiredArgsConstructor
+public class BatchServiceImpl implements BatchService {
+
+    private final SubRequestDispatcher dispatcher;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BatchResponseDto> execute(long userId, List<BatchRequestDto> requests) {
+        List<BatchResponseDto> responses = requests.stream()
+                .map(request -> dispatcher.dispatch(userId, request))
+                .collect(Collectors.toList());
+        // A failed sub-request marks the shared transaction rollback-only; ending it with an explicit
+        // rollback avoids UnexpectedRollbackException and costs nothing as the batch only reads.
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        return responses;
+    }
+}
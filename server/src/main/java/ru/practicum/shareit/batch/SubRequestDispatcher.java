@@ -0,0 +1,83 @@
+package ru.practicum.shareit.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.exception.ErrorMessage;
+import ru.practicum.shareit.exception.ExceptionApiHandler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Runs sub-requests through the server's own controller methods, so the batch endpoint exists only where the server
+ * runs as a web application; the embedded gateway dispatches its batches itself.
+ */
+@Component
+@ConditionalOnWebApplication
+@Slf4j
+public class SubRequestDispatcher {
+
+    private final SubRequestResolver resolver;
+    private final AdviceExceptionHandler exceptionHandler;
+
+    public SubRequestDispatcher(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                                @Qualifier("mvcConversionService") ConversionService conversionService,
+                                ExceptionApiHandler exceptionApiHandler) {
+        this.resolver = new SubRequestResolver(handlerMapping, conversionService);
+        this.exceptionHandler = new AdviceExceptionHandler(exceptionApiHandler);
+    }
+
+    public BatchResponseDto dispatch(long userId, BatchRequestDto request) {
+        try {
+            SubRequest subRequest = resolver.match(request.getMethod(), request.getPath());
+            Object[] args = resolver.resolveArguments(subRequest, userId);
+            Object result = invoke(subRequest.getHandlerMethod(), args);
+            if (result instanceof ResponseEntity) {
+                ResponseEntity<?> entity = (ResponseEntity<?>) result;
+                return new BatchResponseDto(entity.getStatusCodeValue(), entity.getBody());
+            }
+            return new BatchResponseDto(HttpStatus.OK.value(), result);
+        } catch (ResponseStatusException e) {
+            log.error(e.getReason(), Arrays.toString(e.getStackTrace()));
+            return new BatchResponseDto(e.getRawStatusCode(),
+                    new ErrorMessage(e.getReason(), Arrays.toString(e.getStackTrace())));
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+
+    private static Object invoke(HandlerMethod handlerMethod, Object[] args) throws Exception {
+        Method method = handlerMethod.getMethod();
+        ReflectionUtils.makeAccessible(method);
+        try {
+            return method.invoke(handlerMethod.createWithResolvedBean().getBean(), args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private BatchResponseDto handleException(Exception e) {
+        ResponseEntity<?> response = exceptionHandler.handle(e);
+        if (response == null) {
+            log.error(e.getMessage(), Arrays.toString(e.getStackTrace()));
+            return new BatchResponseDto(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    new ErrorMessage(e.getMessage(), Arrays.toString(e.getStackTrace())));
+        }
+        return new BatchResponseDto(response.getStatusCodeValue(), response.getBody());
+    }
+}
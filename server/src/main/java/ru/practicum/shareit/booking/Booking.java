@@ -29,12 +29,12 @@ public class Booking {
     @Column(name = "booking_end", nullable = false)
     private LocalDateTime end;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "booking_item_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Item item;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "booking_booker_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private User booker;
@@ -42,4 +42,8 @@ public class Booking {
     @Column(name = "booking_status", nullable = false)
     @Enumerated(EnumType.STRING)
     private Status status;
+
+    @Version
+    @Column(name = "booking_version", nullable = false)
+    private long version;
 }
\ No newline at end of file
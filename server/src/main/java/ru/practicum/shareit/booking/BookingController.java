@@ -2,9 +2,12 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.common.EntityTags;
 
 import java.util.List;
 
@@ -33,10 +36,12 @@ public class BookingController {
     }
 
     @GetMapping(path = "/{bookingId}")
-    BookingResponseDto get(@RequestHeader(USER_HEADER) long userId,
-                           @PathVariable long bookingId) {
+    ResponseEntity<BookingResponseDto> get(@RequestHeader(USER_HEADER) long userId,
+                                           @PathVariable long bookingId,
+                                           @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Receiving booking with ID: '" + bookingId + "' of user with ID: '" + userId + "'");
-        return bookingService.get(userId, bookingId);
+        return EntityTags.conditional(ifNoneMatch, bookingService.getETag(userId, bookingId),
+                () -> bookingService.get(userId, bookingId));
     }
 
     @GetMapping
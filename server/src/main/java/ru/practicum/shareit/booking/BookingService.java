@@ -13,6 +13,8 @@ public interface BookingService {
 
     BookingResponseDto get(long userId, long bookingId);
 
+    String getETag(long userId, long bookingId);
+
     List<BookingResponseDto> getByBookerId(long bookerId, State state, int from, int size);
 
     List<BookingResponseDto> getByOwnerId(long ownerId, State state, int from, int size);
@@ -14,6 +14,7 @@ import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.common.EntityGetter;
+import ru.practicum.shareit.common.EntityTags;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -99,6 +100,18 @@ public class BookingServiceImpl implements BookingService {
         return toBookingResponseDto(booking);
     }
 
+    @Override
+    @Transactional(rollbackFor = {NotFoundException.class, PermissionException.class}, readOnly = true)
+    public String getETag(long userId, long bookingId) {
+        entityGetter.getUser(userId);
+        Booking booking = entityGetter.getBooking(bookingId);
+        if (userId != booking.getBooker().getId() && userId != booking.getItem().getOwner().getId()) {
+            throw new PermissionException("User with ID: '" + userId + "' couldn't receive booking with ID: '" + bookingId + "'");
+        }
+        return EntityTags.of(bookingId, booking.getVersion(), booking.getItem().getVersion(),
+                booking.getBooker().getVersion());
+    }
+
     @Override
     @Transactional(rollbackFor = {NotFoundException.class}, readOnly = true)
     public List<BookingResponseDto> getByBookerId(long bookerId, State state, int from, int size) {
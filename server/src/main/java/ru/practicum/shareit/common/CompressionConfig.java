@@ -0,0 +1,20 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CompressionConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "shareit-server.request-inflation")
+    public RequestInflationProperties requestInflationProperties() {
+        return new RequestInflationProperties();
+    }
+
+    @Bean
+    public RequestInflationFilter requestInflationFilter(RequestInflationProperties requestInflationProperties) {
+        return new RequestInflationFilter(requestInflationProperties);
+    }
+}
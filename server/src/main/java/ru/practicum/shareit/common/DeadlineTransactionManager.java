@@ -0,0 +1,98 @@
+package ru.practicum.shareit.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.DeadlineExceededException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Bounds each new transaction by the time left until the request deadline. On PostgreSQL the transaction starts with
+ * {@code SET LOCAL statement_timeout} set to the milliseconds left, which the database drops again at commit or
+ * rollback. Other databases, such as H2 in tests, get the standard transaction timeout instead. Hibernate counts it
+ * in whole seconds and rounds the seconds left down at each statement, failing once none are left, so that timeout
+ * gets one second on top of the rounded-up budget and the transaction stops at most a second after the deadline.
+ */
+@Slf4j
+public class DeadlineTransactionManager extends JpaTransactionManager {
+
+    private boolean statementTimeoutSupported;
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        DataSource dataSource = getDataSource();
+        if (dataSource == null) {
+            return;
+        }
+        try {
+            String database = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            statementTimeoutSupported = "PostgreSQL".equals(database);
+        } catch (MetaDataAccessException e) {
+            log.warn("Couldn't detect the database, request deadlines fall back to transaction timeouts", e);
+        }
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        if (!RequestDeadline.isSet()) {
+            return timeout;
+        }
+        long remaining = RequestDeadline.remainingMillis();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("Request deadline passed before the transaction started");
+        }
+        if (statementTimeoutSupported) {
+            return timeout;
+        }
+        int seconds = (int) Math.min(Integer.MAX_VALUE, (remaining + 999) / 1000 + 1);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? seconds : Math.min(timeout, seconds);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (!statementTimeoutSupported || !RequestDeadline.isSet()) {
+            return;
+        }
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                .getResource(obtainEntityManagerFactory());
+        try {
+            holder.getEntityManager().unwrap(Session.class).doWork(this::applyStatementTimeout);
+        } catch (RuntimeException e) {
+            doRollback(new DefaultTransactionStatus(transaction, true, false, definition.isReadOnly(), false, null));
+            doCleanupAfterCompletion(transaction);
+            if (e instanceof DeadlineExceededException) {
+                throw e;
+            }
+            throw new CannotCreateTransactionException("Couldn't set the statement timeout of the transaction", e);
+        }
+    }
+
+    void applyStatementTimeout(Connection connection) throws SQLException {
+        long remaining = RequestDeadline.remainingMillis();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("Request deadline passed before the transaction started");
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL statement_timeout = " + remaining);
+        }
+    }
+
+    void setStatementTimeoutSupported(boolean statementTimeoutSupported) {
+        this.statementTimeoutSupported = statementTimeoutSupported;
+    }
+}
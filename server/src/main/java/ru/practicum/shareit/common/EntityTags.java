@@ -0,0 +1,58 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Strong ETags of a resource built from the ids and versions of the entities its representation is made of. The
+ * services compute them with a few key lookups, so a GET whose {@code If-None-Match} still matches is answered with 304
+ * before the resource is read in full, mapped and serialized.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String of(Object... parts) {
+        String state = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining(":"));
+        return "\"" + DigestUtils.md5DigestAsHex(state.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Whether a client holding one of the tags in {@code If-None-Match} already has the version tagged {@code eTag}.
+     * The comparison is the weak one RFC 7232 prescribes for {@code If-None-Match}.
+     */
+    public static boolean matches(@Nullable String ifNoneMatch, @Nullable String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Answers a GET with 304 when the client already has the version tagged {@code eTag}, and otherwise reads the body
+     * and tags it.
+     */
+    public static <T> ResponseEntity<T> conditional(@Nullable String ifNoneMatch, @Nullable String eTag,
+                                                    Supplier<T> body) {
+        if (matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(body.get());
+    }
+}
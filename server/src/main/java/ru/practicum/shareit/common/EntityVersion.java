@@ -0,0 +1,11 @@
+package ru.practicum.shareit.common;
+
+/**
+ * Id and version of an entity a representation depends on, read without loading the entity.
+ */
+public interface EntityVersion {
+
+    long getId();
+
+    long getVersion();
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deadline of the request handled by the current thread, taken from the timeout budget the gateway forwards.
+ */
+public final class RequestDeadline {
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    static void start(long timeoutMillis) {
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * Runs a call that reaches the services without passing {@link RequestDeadlineFilter}, such as one made in process
+     * by the embedded gateway, under the given timeout. A deadline already running on this thread is kept.
+     */
+    public static <T> T within(long timeoutMillis, Supplier<T> call) {
+        if (isSet()) {
+            return call.get();
+        }
+        start(timeoutMillis);
+        try {
+            return call.get();
+        } finally {
+            clear();
+        }
+    }
+
+    public static boolean isSet() {
+        return DEADLINE.get() != null;
+    }
+
+    public static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+}
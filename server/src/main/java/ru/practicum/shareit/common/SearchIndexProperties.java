@@ -0,0 +1,18 @@
+package ru.practicum.shareit.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.search.index")
+public class SearchIndexProperties {
+
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+    private int batchSize = 1000;
+    private Duration pollInterval = Duration.ofSeconds(5);
+    private Duration pollOverlap = Duration.ofSeconds(10);
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "shareit-server.virtual-threads")
+    public VirtualThreadProperties virtualThreadProperties() {
+        return new VirtualThreadProperties();
+    }
+
+    @Bean
+    public VirtualThreadCustomizer virtualThreadCustomizer(VirtualThreadProperties virtualThreadProperties) {
+        return new VirtualThreadCustomizer(virtualThreadProperties);
+    }
+}
@@ -2,8 +2,11 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -15,7 +18,8 @@ public class ExceptionApiHandler {
 
     @ExceptionHandler({
             NotAvailableException.class,
-            TimeValidationException.class})
+            TimeValidationException.class,
+            javax.validation.ConstraintViolationException.class})
     public ResponseEntity<ErrorMessage> handleBadRequest(Exception e) {
         var response = ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
@@ -44,7 +48,9 @@ public class ExceptionApiHandler {
         return response;
     }
 
-    @ExceptionHandler(ConstraintViolationException.class)
+    @ExceptionHandler({
+            ConstraintViolationException.class,
+            OptimisticLockingFailureException.class})
     public ResponseEntity<ErrorMessage> handleConflict(Exception e) {
         var response = ResponseEntity
                 .status(HttpStatus.CONFLICT)
@@ -52,4 +58,16 @@ public class ExceptionApiHandler {
         log.error(e.getMessage(), Arrays.toString(e.getStackTrace()));
         return response;
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler({
+            DeadlineExceededException.class,
+            TransactionTimedOutException.class,
+            QueryTimeoutException.class})
+    public ResponseEntity<ErrorMessage> handleDeadlineExceeded(Exception e) {
+        var response = ResponseEntity
+                .status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(new ErrorMessage(e.getMessage(), Arrays.toString(e.getStackTrace())));
+        log.warn(e.getMessage());
+        return response;
+    }
+}
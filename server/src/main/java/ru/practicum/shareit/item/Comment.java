@@ -25,12 +25,12 @@ public class Comment {
     @Column(name = "comment_text", nullable = false)
     String text;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "comment_item_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     Item item;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "comment_author_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     User author;
@@ -1,10 +1,18 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.common.EntityVersion;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByItemIn(List<Item> items);
+
+    /**
+     * Comments never change, but each shows its author's current name.
+     */
+    @Query(value = "select c.id as id, c.author.version as version from Comment as c where c.item.id = ?1 order by c.id")
+    List<EntityVersion> findAuthorVersionsByItemId(long itemId);
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.common.SearchIndexProperties;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Answers item search from an {@link InvertedIndex} held in memory. Items are indexed as their transaction commits
+ * and the whole index is rebuilt from the database on startup and every {@code rebuild-interval}, which also drops
+ * items deleted along with their owner. The latest change to each item committed while a rebuild is loading is
+ * replayed onto the new index before it replaces the old one.
+ * <p>
+ * With several server replicas each holds its own index, so every {@code poll-interval} it also reads the items whose
+ * {@code item_updated_at} is past its last poll, less {@code poll-overlap}. The overlap covers clock skew between
+ * replicas and transactions that commit after the timestamp they wrote; a change that takes longer still, like a
+ * deletion, waits for the next rebuild.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit-server.search.engine", havingValue = "index")
+@EnableConfigurationProperties(SearchIndexProperties.class)
+public class IndexItemSearch implements ItemSearch, DisposableBean {
+
+    private final ItemRepository itemRepository;
+    private final SearchIndexProperties properties;
+    private final ScheduledExecutorService rebuilder;
+    private final Timer refreshLag;
+    private final Timer rebuilds;
+    private final Timer queries;
+    private final Counter truncatedExpansions;
+    private volatile InvertedIndex index;
+    private volatile long builtAt = System.nanoTime();
+    /**
+     * Latest state of each item changed during a rebuild, {@code null} for an item to remove.
+     */
+    private Map<Long, InvertedIndex.Document> pending;
+    private LocalDateTime polledUpTo;
+
+    public IndexItemSearch(ItemRepository itemRepository, SearchIndexProperties properties, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.properties = properties;
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("search.index.documents", this, search -> search.index.documentCount())
+                .description("Items in the search index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.terms", this, search -> search.index.termCount())
+                .description("Distinct terms in the search index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.postings", this, search -> search.index.postingCount())
+                .description("Term to item entries in the search index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.age", this, search -> (System.nanoTime() - search.builtAt) / 1e9)
+                .description("Seconds since the search index was last rebuilt from the database")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.refreshLag = Timer.builder("search.index.refresh.lag")
+                .description("Time from saving an item to the change being searchable")
+                .register(meterRegistry);
+        this.rebuilds = Timer.builder("search.index.rebuild")
+                .description("Full rebuilds of the search index")
+                .register(meterRegistry);
+        this.queries = Timer.builder("search.index.queries")
+                .description("Searches answered from the index")
+                .register(meterRegistry);
+        this.truncatedExpansions = Counter.builder("search.index.expansions.truncated")
+                .description("Query words whose prefix matched more terms than the index expands to")
+                .register(meterRegistry);
+        this.index = new InvertedIndex(truncatedExpansions::increment);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        polledUpTo = LocalDateTime.now();
+        rebuild();
+        long interval = properties.getRebuildInterval().toMillis();
+        if (interval > 0) {
+            rebuilder.scheduleWithFixedDelay(this::rebuild, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        long pollInterval = properties.getPollInterval().toMillis();
+        if (pollInterval > 0) {
+            rebuilder.scheduleWithFixedDelay(this::poll, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public List<Hit> search(String text, Pageable pageable) {
+        long start = System.nanoTime();
+        List<Hit> hits = index.search(text, pageable.getOffset(), pageable.getPageSize()).stream()
+                .map(match -> new Hit(toItem(match.getDocument()), match.getScore()))
+                .collect(Collectors.toList());
+        queries.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return hits;
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        long savedAt = System.nanoTime();
+        long id = item.getId();
+        InvertedIndex.Document document = Boolean.TRUE.equals(item.getAvailable()) ? toDocument(item) : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(id, document);
+                    refreshLag.record(System.nanoTime() - savedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } else {
+            apply(id, document);
+            refreshLag.record(System.nanoTime() - savedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+
+    void rebuild() {
+        long start = System.nanoTime();
+        try {
+            synchronized (this) {
+                pending = new HashMap<>();
+            }
+            InvertedIndex rebuilt = new InvertedIndex(truncatedExpansions::increment);
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(lastId,
+                        PageRequest.of(0, properties.getBatchSize()));
+                for (Item item : batch) {
+                    rebuilt.upsert(toDocument(item));
+                    lastId = item.getId();
+                }
+            } while (batch.size() == properties.getBatchSize());
+            synchronized (this) {
+                pending.forEach((id, document) -> {
+                    if (document != null) {
+                        rebuilt.upsert(document);
+                    } else {
+                        rebuilt.remove(id);
+                    }
+                });
+                index = rebuilt;
+                builtAt = System.nanoTime();
+            }
+            log.info("Search index rebuilt with " + rebuilt.documentCount() + " items");
+        } catch (RuntimeException e) {
+            log.error("Search index rebuild failed, keeping the current index", e);
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+            rebuilds.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Applies the items changed since the last poll, wherever they were saved. Runs on the rebuild thread, so never
+     * during a rebuild. Refresh lag is recorded once per change, from the time it was saved.
+     */
+    void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            LocalDateTime since = polledUpTo.minus(properties.getPollOverlap());
+            for (Item item : itemRepository.findByUpdatedAtGreaterThanEqual(since)) {
+                apply(item.getId(), Boolean.TRUE.equals(item.getAvailable()) ? toDocument(item) : null);
+                if (item.getUpdatedAt().isAfter(polledUpTo)) {
+                    // A replica whose clock runs ahead of this one gives a negative lag, counted as none.
+                    Duration lag = Duration.between(item.getUpdatedAt(), now);
+                    refreshLag.record(lag.isNegative() ? Duration.ZERO : lag);
+                }
+            }
+            polledUpTo = now;
+        } catch (RuntimeException e) {
+            log.error("Search index poll failed, retrying from the same point", e);
+        }
+    }
+
+    private synchronized void apply(long id, InvertedIndex.Document document) {
+        if (document != null) {
+            index.upsert(document);
+        } else {
+            index.remove(id);
+        }
+        if (pending != null) {
+            pending.put(id, document);
+        }
+    }
+
+    private static InvertedIndex.Document toDocument(Item item) {
+        return new InvertedIndex.Document(item.getId(), item.getName(), item.getDescription(),
+                item.getRequest() == null ? null : item.getRequest().getId());
+    }
+
+    private static Item toItem(InvertedIndex.Document document) {
+        return Item.builder()
+                .id(document.getId())
+                .name(document.getName())
+                .description(document.getDescription())
+                .available(true)
+                .request(document.getRequestId() == null ? null : ItemRequest.builder().id(document.getRequestId()).build())
+                .build();
+    }
+}
@@ -0,0 +1,464 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over item names and descriptions. Documents are scored with BM25, the name counting twice
+ * as much as the description. Every query word has to match a word of the document, either exactly or as its prefix
+ * at a lower weight, which keeps "дрел" finding "дрель" the way the old substring search did.
+ * <p>
+ * Documents are numbered densely and postings are arrays of those numbers, so a query adds up scores in per-thread
+ * arrays instead of boxing an entry for every match; common words match a good part of the catalog.
+ */
+class InvertedIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_BOOST = 2.0;
+    private static final double PREFIX_WEIGHT = 0.5;
+    /**
+     * Most terms a query word expands to as a prefix, taken in alphabetical order. Bounds the work of one- and
+     * two-letter words, which can prefix a good part of the vocabulary; matches through the terms past the limit are
+     * missed, and each cut-off is reported to {@code expansionsTruncated}.
+     */
+    static final int MAX_EXPANSIONS = 64;
+    private static final ThreadLocal<Scores> SCORES = ThreadLocal.withInitial(Scores::new);
+
+    private final Runnable expansionsTruncated;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private IndexedDocument[] byOrdinal = new IndexedDocument[16];
+    private int[] nameLengthOf = new int[16];
+    private int[] descriptionLengthOf = new int[16];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int ordinalCount;
+    private long nameLengths;
+    private long descriptionLengths;
+    private long postingCount;
+
+    InvertedIndex() {
+        this(() -> {
+        });
+    }
+
+    InvertedIndex(Runnable expansionsTruncated) {
+        this.expansionsTruncated = expansionsTruncated;
+    }
+
+    @Value
+    static class Document {
+        long id;
+        String name;
+        String description;
+        Long requestId;
+    }
+
+    @Value
+    static class Match {
+        Document document;
+        double score;
+    }
+
+    void upsert(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.getId());
+            List<String> name = tokens(document.getName());
+            List<String> description = tokens(document.getDescription());
+            Map<String, int[]> frequencies = new HashMap<>();
+            name.forEach(term -> frequencies.computeIfAbsent(term, key -> new int[2])[0]++);
+            description.forEach(term -> frequencies.computeIfAbsent(term, key -> new int[2])[1]++);
+            int ordinal = nextOrdinal();
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new Postings()).add(ordinal, frequency[0], frequency[1]));
+            IndexedDocument indexed = new IndexedDocument(document, ordinal, name.size(), description.size(),
+                    new ArrayList<>(frequencies.keySet()));
+            documents.put(document.getId(), indexed);
+            byOrdinal[ordinal] = indexed;
+            nameLengthOf[ordinal] = name.size();
+            descriptionLengthOf[ordinal] = description.size();
+            nameLengths += name.size();
+            descriptionLengths += description.size();
+            postingCount += frequencies.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Match> search(String text, long offset, int limit) {
+        List<String> query = tokens(text).stream().distinct().collect(Collectors.toList());
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Word> words = new ArrayList<>(query.size());
+            for (String word : query) {
+                Word expanded = expand(word);
+                if (expanded.terms.isEmpty()) {
+                    return List.of();
+                }
+                words.add(expanded);
+            }
+            // The rarest word goes first: it decides the candidates, and later words only narrow them down.
+            words.sort(Comparator.comparingLong(word -> word.postingCount));
+            Scores scores = SCORES.get();
+            scores.begin(ordinalCount);
+            double averageName = Math.max(1.0, (double) nameLengths / documents.size());
+            double averageDescription = Math.max(1.0, (double) descriptionLengths / documents.size());
+            for (int word = 0; word < words.size(); word++) {
+                for (Map.Entry<String, Postings> term : words.get(word).terms) {
+                    double weight = term.getKey().equals(words.get(word).text) ? 1.0 : PREFIX_WEIGHT;
+                    Postings termPostings = term.getValue();
+                    double idf = Math.log(1 + (documents.size() - termPostings.size + 0.5) / (termPostings.size + 0.5));
+                    for (int i = 0; i < termPostings.size; i++) {
+                        int ordinal = termPostings.ordinals[i];
+                        if (word > 0 && !scores.isCandidate(ordinal, word)) {
+                            continue;
+                        }
+                        double score = weight * idf
+                                * (NAME_BOOST * saturate(termPostings.name[i], nameLengthOf[ordinal], averageName)
+                                + saturate(termPostings.description[i], descriptionLengthOf[ordinal], averageDescription));
+                        scores.add(ordinal, word, score);
+                    }
+                }
+                if (scores.finishWord() == 0) {
+                    return List.of();
+                }
+            }
+            int[] ranked = top(scores, words.size(), offset + limit);
+            List<Match> page = new ArrayList<>(Math.min(limit, ranked.length));
+            for (long i = offset; i < ranked.length; i++) {
+                int ordinal = ranked[(int) i];
+                page.add(new Match(byOrdinal[ordinal].document, scores.total[ordinal]));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long postingCount() {
+        lock.readLock().lock();
+        try {
+            return postingCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private Word expand(String text) {
+        Word word = new Word(text);
+        for (Map.Entry<String, Postings> term : postings.tailMap(text, true).entrySet()) {
+            if (!term.getKey().startsWith(text)) {
+                break;
+            }
+            if (word.terms.size() == MAX_EXPANSIONS) {
+                expansionsTruncated.run();
+                break;
+            }
+            word.terms.add(term);
+            word.postingCount += term.getValue().size;
+        }
+        return word;
+    }
+
+    /**
+     * The best {@code count} documents that matched all {@code words}, in ranking order. They are kept in a heap of
+     * that size with the worst of them on top, so a page costs {@code n log(count)} rather than sorting every match.
+     */
+    private int[] top(Scores scores, int words, long count) {
+        int[] heap = new int[(int) Math.min(count, scores.candidateCount)];
+        int size = 0;
+        for (int i = 0; i < scores.candidateCount; i++) {
+            int ordinal = scores.candidates[i];
+            if (scores.matched[ordinal] != words) {
+                continue;
+            }
+            if (size < heap.length) {
+                heap[size] = ordinal;
+                siftUp(heap, size++, scores);
+            } else if (size > 0 && ranksAbove(ordinal, heap[0], scores)) {
+                heap[0] = ordinal;
+                siftDown(heap, size, scores);
+            }
+        }
+        int[] ranked = new int[size];
+        while (size > 0) {
+            ranked[size - 1] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, scores);
+        }
+        return ranked;
+    }
+
+    private void siftUp(int[] heap, int index, Scores scores) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!ranksAbove(heap[parent], heap[index], scores)) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, Scores scores) {
+        int index = 0;
+        while (true) {
+            int worst = index;
+            for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                if (ranksAbove(heap[worst], heap[child], scores)) {
+                    worst = child;
+                }
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    /**
+     * Higher score first, then lower id, as the other engines rank.
+     */
+    private boolean ranksAbove(int ordinal, int other, Scores scores) {
+        if (scores.total[ordinal] != scores.total[other]) {
+            return scores.total[ordinal] > scores.total[other];
+        }
+        return byOrdinal[ordinal].document.getId() < byOrdinal[other].document.getId();
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int ordinal = heap[i];
+        heap[i] = heap[j];
+        heap[j] = ordinal;
+    }
+
+    private static double saturate(int frequency, int length, double averageLength) {
+        if (frequency == 0) {
+            return 0;
+        }
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private int nextOrdinal() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        if (ordinalCount == byOrdinal.length) {
+            byOrdinal = Arrays.copyOf(byOrdinal, ordinalCount * 2);
+            nameLengthOf = Arrays.copyOf(nameLengthOf, ordinalCount * 2);
+            descriptionLengthOf = Arrays.copyOf(descriptionLengthOf, ordinalCount * 2);
+        }
+        return ordinalCount++;
+    }
+
+    private void removeLocked(long id) {
+        IndexedDocument document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            Postings termPostings = postings.get(term);
+            termPostings.remove(document.ordinal);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+        byOrdinal[document.ordinal] = null;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = document.ordinal;
+        nameLengths -= document.nameLength;
+        descriptionLengths -= document.descriptionLength;
+        postingCount -= document.terms.size();
+    }
+
+    private static class IndexedDocument {
+        private final Document document;
+        private final int ordinal;
+        private final int nameLength;
+        private final int descriptionLength;
+        private final List<String> terms;
+
+        IndexedDocument(Document document, int ordinal, int nameLength, int descriptionLength, List<String> terms) {
+            this.document = document;
+            this.ordinal = ordinal;
+            this.nameLength = nameLength;
+            this.descriptionLength = descriptionLength;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * A query word with the terms it matches, exactly or as their prefix.
+     */
+    private static class Word {
+        private final String text;
+        private final List<Map.Entry<String, Postings>> terms = new ArrayList<>();
+        private long postingCount;
+
+        Word(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * The documents of one term with how often it occurs in their name and description, in no particular order.
+     */
+    private static class Postings {
+        private int[] ordinals = new int[4];
+        private int[] name = new int[4];
+        private int[] description = new int[4];
+        private int size;
+
+        void add(int ordinal, int nameFrequency, int descriptionFrequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                name = Arrays.copyOf(name, size * 2);
+                description = Arrays.copyOf(description, size * 2);
+            }
+            ordinals[size] = ordinal;
+            name[size] = nameFrequency;
+            description[size] = descriptionFrequency;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    size--;
+                    ordinals[i] = ordinals[size];
+                    name[i] = name[size];
+                    description[i] = description[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scores of one query, indexed by document ordinal and reused by the thread's next query. A document takes part
+     * while it has matched every word so far; each word adds its best-scoring term.
+     */
+    private static class Scores {
+        private int[] generations = new int[0];
+        private int[] matched = new int[0];
+        private double[] total = new double[0];
+        private double[] best = new double[0];
+        private int[] candidates = new int[0];
+        private int candidateCount;
+        private int generation;
+        private int reached;
+
+        void begin(int capacity) {
+            if (generations.length < capacity) {
+                generations = Arrays.copyOf(generations, capacity);
+                matched = Arrays.copyOf(matched, capacity);
+                total = Arrays.copyOf(total, capacity);
+                best = Arrays.copyOf(best, capacity);
+                candidates = Arrays.copyOf(candidates, capacity);
+            }
+            if (++generation == 0) {
+                Arrays.fill(generations, 0);
+                generation = 1;
+            }
+            candidateCount = 0;
+            reached = 0;
+        }
+
+        boolean isCandidate(int ordinal, int word) {
+            return generations[ordinal] == generation && matched[ordinal] >= word;
+        }
+
+        void add(int ordinal, int word, double score) {
+            if (generations[ordinal] != generation) {
+                generations[ordinal] = generation;
+                matched[ordinal] = 0;
+                total[ordinal] = 0;
+                candidates[candidateCount++] = ordinal;
+            }
+            if (matched[ordinal] == word) {
+                matched[ordinal] = word + 1;
+                total[ordinal] += score;
+                best[ordinal] = score;
+                reached++;
+            } else if (score > best[ordinal]) {
+                total[ordinal] += score - best[ordinal];
+                best[ordinal] = score;
+            }
+        }
+
+        /**
+         * How many documents matched the word just scored, and so every word before it.
+         */
+        int finishWord() {
+            int count = reached;
+            reached = 0;
+            return count;
+        }
+    }
+}
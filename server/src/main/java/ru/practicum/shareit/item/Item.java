@@ -3,10 +3,12 @@ package ru.practicum.shareit.item;
 import lombok.*;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @Builder
 @Getter
@@ -31,7 +33,7 @@ public class Item {
     @Column(name = "item_available", nullable = false)
     private Boolean available;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "item_owner_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private User owner;
@@ -40,4 +42,12 @@ public class Item {
     @JoinColumn(name = "item_request_id")
     @OnDelete(action = OnDeleteAction.NO_ACTION)
     private ItemRequest request;
+
+    @UpdateTimestamp
+    @Column(name = "item_updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "item_version", nullable = false)
+    private long version;
 }
\ No newline at end of file
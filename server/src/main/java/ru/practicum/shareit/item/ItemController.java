@@ -2,7 +2,10 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.EntityTags;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
@@ -42,10 +45,12 @@ public class ItemController {
     }
 
     @GetMapping(path = "{itemId}")
-    ItemInfoDto get(@RequestHeader(USER_HEADER) long userId,
-                    @PathVariable long itemId) {
+    ResponseEntity<ItemInfoDto> get(@RequestHeader(USER_HEADER) long userId,
+                                    @PathVariable long itemId,
+                                    @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Receiving item with ID: '" + itemId + "'");
-        return itemService.get(userId, itemId);
+        return EntityTags.conditional(ifNoneMatch, itemService.getETag(userId, itemId),
+                () -> itemService.get(userId, itemId));
     }
 
     @GetMapping(path = "/search")
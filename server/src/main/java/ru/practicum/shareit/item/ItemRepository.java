@@ -4,8 +4,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.common.EntityVersion;
 import ru.practicum.shareit.request.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,10 +15,19 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByOwnerId(Long userId, Pageable pageable);
 
-    @Query(value = "select it from Item as it where (upper(it.name) like upper(concat('%', ?1, '%')) or upper(it.description) like upper(concat('%', ?1, '%'))) and it.available = true")
-    List<Item> search(String text, Pageable pageable);
+    @Query(value = "select it from Item as it where (upper(it.name) like upper(concat('%', ?1, '%')) or upper(it.description) like upper(concat('%', ?1, '%'))) and it.available = true "
+            + "order by sign(locate(upper(?1), upper(it.name))) desc, it.id")
+    List<Item> searchRanked(String text, Pageable unsorted);
+
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderById(long id, Pageable pageable);
+
+    List<Item> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
 
     List<Item> findByRequestIn(List<ItemRequest> requests);
 
+    @Query(value = "select it from Item as it where it.request.id = ?1")
     List<Item> findByRequestId(long requestId);
+
+    @Query(value = "select it.id as id, it.version as version from Item as it where it.request.id = ?1 order by it.id")
+    List<EntityVersion> findVersionsByRequestId(long requestId);
 }
\ No newline at end of file
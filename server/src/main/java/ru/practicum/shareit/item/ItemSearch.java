@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Finds available items matching a text, best matches first. The engine is picked with
+ * {@code shareit-server.search.engine}.
+ */
+public interface ItemSearch {
+
+    List<Hit> search(String text, Pageable pageable);
+
+    /**
+     * Called by the service after an item is created or changed, for engines that keep their own copy of the items.
+     */
+    default void onItemSaved(Item item) {
+    }
+
+    @Value
+    class Hit {
+        Item item;
+        double score;
+    }
+}
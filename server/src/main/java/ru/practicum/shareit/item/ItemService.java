@@ -16,6 +16,8 @@ public interface ItemService {
 
     ItemInfoDto get(long userId, long itemId);
 
+    String getETag(long userId, long itemId);
+
     List<ItemDto> search(long userId, String text, int from, int size);
 
     CommentDto createComment(long userId, long itemId, CommentDto commentDto);
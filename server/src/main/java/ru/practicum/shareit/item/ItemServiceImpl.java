@@ -17,8 +17,11 @@ import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.common.EntityGetter;
+import ru.practicum.shareit.common.EntityTags;
+import ru.practicum.shareit.common.EntityVersion;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -39,6 +42,7 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final EntityGetter entityGetter;
+    private final ItemSearch itemSearch;
 
     @Override
     @Transactional(rollbackFor = NotFoundException.class)
@@ -52,6 +56,7 @@ public class ItemServiceImpl implements ItemService {
         item.setRequest(request.orElse(null));
         item.setOwner(owner);
         item = itemRepository.save(item);
+        itemSearch.onItemSaved(item);
         log.info("Item with ID: '" + item.getId() + "' of user with ID: '" + userId + "' successfully created");
         return toItemDto(item);
     }
@@ -73,6 +78,7 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
+        itemSearch.onItemSaved(item);
         log.info("Item with ID: '" + item.getId() + "' of user with ID: '" + userId + "' successfully updated");
         return toItemDto(item);
     }
@@ -112,6 +118,30 @@ public class ItemServiceImpl implements ItemService {
         return result;
     }
 
+    /**
+     * Covers what {@link #get} shows the user: the item, its comments with their authors' names and, for the owner,
+     * the last and next bookings as of now.
+     */
+    @Override
+    @Transactional(rollbackFor = NotFoundException.class, readOnly = true)
+    public String getETag(long userId, long itemId) {
+        User user = entityGetter.getUser(userId);
+        Item item = entityGetter.getItem(itemId);
+        boolean owner = user.getId() == item.getOwner().getId();
+        List<Object> parts = new ArrayList<>(List.of(itemId, item.getVersion(), owner));
+        if (owner) {
+            List<Booking> bookings = bookingRepository.findByItemId(itemId);
+            LocalDateTime now = LocalDateTime.now();
+            parts.add(bookingVersion(lastBooking(bookings, itemId, now)));
+            parts.add(bookingVersion(nextBooking(bookings, itemId, now)));
+        }
+        for (EntityVersion comment : commentRepository.findAuthorVersionsByItemId(itemId)) {
+            parts.add(comment.getId());
+            parts.add(comment.getVersion());
+        }
+        return EntityTags.of(parts.toArray());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> search(long userId, String text, int from, int size) {
@@ -120,7 +150,7 @@ public class ItemServiceImpl implements ItemService {
             return Collections.emptyList();
         }
         Pageable pageable = PageRequest.of(from, size, Sort.by("id"));
-        List<Item> result = itemRepository.search(text, pageable);
+        List<ItemSearch.Hit> result = itemSearch.search(text, pageable);
         log.info(result.size() + " items founded by text: '" + text + "'");
         return result.stream()
                 .map(ItemMapper::toItemDto)
@@ -159,20 +189,32 @@ public class ItemServiceImpl implements ItemService {
 
     private void addBookings(ItemInfoDto itemInfoDto, List<Booking> bookings) {
         LocalDateTime now = LocalDateTime.now();
-        Booking lastBooking = bookings.stream()
-                .filter(b -> b.getItem().getId() == itemInfoDto.getId())
+        Booking lastBooking = lastBooking(bookings, itemInfoDto.getId(), now);
+        Booking nextBooking = nextBooking(bookings, itemInfoDto.getId(), now);
+        itemInfoDto.setLastBooking(lastBooking == null ? null : toBookingInfoDto(lastBooking));
+        itemInfoDto.setNextBooking(nextBooking == null ? null : toBookingInfoDto(nextBooking));
+    }
+
+    private static Booking lastBooking(List<Booking> bookings, long itemId, LocalDateTime now) {
+        return bookings.stream()
+                .filter(b -> b.getItem().getId() == itemId)
                 .filter(b -> b.getStatus() == Status.APPROVED)
                 .filter(b -> b.getStart().isBefore(now) || b.getEnd().isBefore(now))
                 .max(Comparator.comparing(Booking::getEnd))
                 .orElse(null);
-        Booking nextBooking = bookings.stream()
-                .filter(booking -> booking.getItem().getId() == itemInfoDto.getId())
+    }
+
+    private static Booking nextBooking(List<Booking> bookings, long itemId, LocalDateTime now) {
+        return bookings.stream()
+                .filter(b -> b.getItem().getId() == itemId)
                 .filter(b -> b.getStatus() == Status.APPROVED)
                 .filter(b -> b.getStart().isAfter(now))
                 .min(Comparator.comparing(Booking::getStart))
                 .orElse(null);
-        itemInfoDto.setLastBooking(lastBooking == null ? null : toBookingInfoDto(lastBooking));
-        itemInfoDto.setNextBooking(nextBooking == null ? null : toBookingInfoDto(nextBooking));
+    }
+
+    private static String bookingVersion(Booking booking) {
+        return booking == null ? "none" : booking.getId() + "." + booking.getVersion();
     }
 
     private void addComments(ItemInfoDto itemInfoDto, List<Comment> comments) {
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Substring search that runs on any database, the engine of the {@code ci} and {@code test} profiles on H2. Name
+ * matches rank above description-only matches.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.search.engine", havingValue = "like")
+@RequiredArgsConstructor
+public class LikeItemSearch implements ItemSearch {
+    static final double NAME_SCORE = 1.0;
+    static final double DESCRIPTION_SCORE = 0.5;
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Hit> search(String text, Pageable pageable) {
+        String needle = text.toUpperCase(Locale.ROOT);
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return itemRepository.searchRanked(text, unsorted).stream()
+                .map(item -> new Hit(item, item.getName().toUpperCase(Locale.ROOT).contains(needle)
+                        ? NAME_SCORE
+                        : DESCRIPTION_SCORE))
+                .collect(Collectors.toList());
+    }
+}
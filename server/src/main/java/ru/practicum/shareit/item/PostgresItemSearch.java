@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over the generated {@code item_search} column, ranked by {@code ts_rank_cd} with the name weighted
+ * above the description. Substrings that are not whole words still match through the {@code pg_trgm} indexes and
+ * add their name similarity to the rank. The indexes are partial on {@code item_available}, see
+ * {@code schema-search-postgres.sql}, which is only applied with this engine. The default engine; covered by
+ * {@code PostgresItemSearchTest}, which runs against Postgres with {@code mvn test -Ppostgres}.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.search.engine", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PostgresItemSearch implements ItemSearch {
+    static final String SEARCH = "select item_id, ts_rank_cd(item_search, query) + similarity(item_name, :text) as score "
+            + "from items, websearch_to_tsquery('russian', :text) as query "
+            + "where item_available "
+            + "and (item_search @@ query or item_name ilike :pattern or item_description ilike :pattern) "
+            + "order by score desc, item_id "
+            + "limit :limit offset :offset";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Hit> search(String text, Pageable pageable) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("text", text)
+                .addValue("pattern", "%" + escapeLike(text) + "%")
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        jdbcTemplate.query(SEARCH, parameters, resultSet -> {
+            scores.put(resultSet.getLong("item_id"), resultSet.getDouble("score"));
+        });
+        Map<Long, Item> items = itemRepository.findAllById(scores.keySet()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return scores.entrySet().stream()
+                .filter(score -> items.containsKey(score.getKey()))
+                .map(score -> new Hit(items.get(score.getKey()), score.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,12 +1,14 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
-@AllArgsConstructor
+@AllArgsConstructor(onConstructor_ = @JsonCreator)
 public class ItemDto {
 
     private long id;
@@ -14,4 +16,10 @@ public class ItemDto {
     private String description;
     private Boolean available;
     private Long requestId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double score;
+
+    public ItemDto(long id, String name, String description, Boolean available, Long requestId) {
+        this(id, name, description, available, requestId, null);
+    }
 }
\ No newline at end of file
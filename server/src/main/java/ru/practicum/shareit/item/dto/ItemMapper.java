@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.dto;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemSearch;
 
 @UtilityClass
 public class ItemMapper {
@@ -25,6 +26,12 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto toItemDto(ItemSearch.Hit hit) {
+        ItemDto itemDto = toItemDto(hit.getItem());
+        itemDto.setScore(hit.getScore());
+        return itemDto;
+    }
+
     public static ItemInfoDto toItemInfoDto(Item item) {
         return ItemInfoDto.builder()
                 .id(item.getId())
@@ -28,7 +28,7 @@ public class ItemRequest {
     @Column(name = "request_created", nullable = false)
     private LocalDateTime created;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "request_requester_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private User requester;
@@ -2,7 +2,10 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.EntityTags;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -30,10 +33,12 @@ public class ItemRequestController {
     }
 
     @GetMapping(path = "{requestId}")
-    ItemRequestDto get(@RequestHeader(USER_HEADER) long userId,
-                       @PathVariable long requestId) {
+    ResponseEntity<ItemRequestDto> get(@RequestHeader(USER_HEADER) long userId,
+                                       @PathVariable long requestId,
+                                       @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Receiving request with ID: '" + requestId + "'");
-        return itemRequestService.get(userId, requestId);
+        return EntityTags.conditional(ifNoneMatch, itemRequestService.getETag(userId, requestId),
+                () -> itemRequestService.get(userId, requestId));
     }
 
     @GetMapping(path = "/all")
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,5 +13,6 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     List<ItemRequest> findByRequesterId(long userId, Sort sort);
 
+    @Query(value = "select r from ItemRequest as r where r.requester.id <> ?1")
     List<ItemRequest> findByRequesterIdNot(long userId, Pageable pageable);
 }
\ No newline at end of file
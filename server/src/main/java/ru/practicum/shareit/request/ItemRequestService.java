@@ -12,5 +12,7 @@ public interface ItemRequestService {
 
     ItemRequestDto get(long userId, long requestId);
 
+    String getETag(long userId, long requestId);
+
     List<ItemRequestDto> getAll(long userId, int from, int size);
 }
\ No newline at end of file
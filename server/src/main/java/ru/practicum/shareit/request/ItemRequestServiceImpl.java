@@ -15,8 +15,11 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.common.EntityGetter;
+import ru.practicum.shareit.common.EntityTags;
+import ru.practicum.shareit.common.EntityVersion;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -71,6 +74,25 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return result;
     }
 
+    /**
+     * Requests don't change once created, so only the items answering the request can change its representation.
+     */
+    @Override
+    @Transactional(rollbackFor = NotFoundException.class, readOnly = true)
+    public String getETag(long userId, long requestId) {
+        entityGetter.getUser(userId);
+        if (!itemRequestRepository.existsById(requestId)) {
+            throw new NotFoundException("Request with ID: '" + requestId + "' doesn't exist");
+        }
+        List<Object> parts = new ArrayList<>();
+        parts.add(requestId);
+        for (EntityVersion item : itemRepository.findVersionsByRequestId(requestId)) {
+            parts.add(item.getId());
+            parts.add(item.getVersion());
+        }
+        return EntityTags.of(parts.toArray());
+    }
+
     @Override
     @Transactional(rollbackFor = NotFoundException.class, readOnly = true)
     public List<ItemRequestDto> getAll(long userId, int from, int size) {
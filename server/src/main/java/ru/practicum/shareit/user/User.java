@@ -23,4 +23,8 @@ public class User {
 
     @Column(name = "user_email", unique = true, nullable = false)
     private String email;
+
+    @Version
+    @Column(name = "user_version", nullable = false)
+    private long version;
 }
\ No newline at end of file
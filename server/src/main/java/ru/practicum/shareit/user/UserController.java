@@ -2,7 +2,10 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.EntityTags;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -35,10 +38,18 @@ public class UserController {
         return userService.getAll();
     }
 
+    @GetMapping(path = "/ids")
+    List<Long> getIds(@RequestParam(defaultValue = "0") long afterId,
+                      @RequestParam(defaultValue = "10000") int size) {
+        log.info("Receiving up to " + size + " user IDs after ID: '" + afterId + "'");
+        return userService.getIds(afterId, size);
+    }
+
     @GetMapping(path = "/{id}")
-    UserDto get(@PathVariable long id) {
+    ResponseEntity<UserDto> get(@PathVariable long id,
+                                @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Receiving user with ID: '" + id + "'");
-        return userService.get(id);
+        return EntityTags.conditional(ifNoneMatch, userService.getETag(id), () -> userService.get(id));
     }
 
     @DeleteMapping(path = "/{id}")
@@ -1,8 +1,19 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    @Query("select u.id from User u where u.id > ?1 order by u.id")
+    List<Long> findIdsAfter(long afterId, Pageable pageable);
+
+    @Query("select u.version from User u where u.id = ?1")
+    Optional<Long> findVersionById(long id);
 }
\ No newline at end of file
@@ -12,7 +12,11 @@ public interface UserService {
 
     List<UserDto> getAll();
 
+    List<Long> getIds(long afterId, int size);
+
     UserDto get(Long id);
 
+    String getETag(Long id);
+
     void delete(Long id);
 }
\ No newline at end of file
@@ -2,12 +2,14 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.common.EntityGetter;
+import ru.practicum.shareit.common.EntityTags;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -56,6 +58,12 @@ public class UserServiceImpl implements UserService {
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getIds(long afterId, int size) {
+        return userRepository.findIdsAfter(afterId, PageRequest.of(0, size));
+    }
+
     @Override
     @Transactional(rollbackFor = NotFoundException.class, readOnly = true)
     public UserDto get(Long id) {
@@ -64,6 +72,14 @@ public class UserServiceImpl implements UserService {
         return toUserDto(user);
     }
 
+    @Override
+    @Transactional(rollbackFor = NotFoundException.class, readOnly = true)
+    public String getETag(Long id) {
+        long version = userRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("User with ID: '" + id + "' doesn't exist"));
+        return EntityTags.of(id, version);
+    }
+
     @Override
     @Transactional(rollbackFor = NotFoundException.class)
     public void delete(Long id) {
@@ -0,0 +1,9 @@
+create extension if not exists pg_trgm;
+
+alter table items add column item_search tsvector generated always as (
+    setweight(to_tsvector('russian', item_name), 'A') || setweight(to_tsvector('russian', item_description), 'B')
+) stored;
+
+create index items_search_idx on items using gin (item_search) where item_available;
+create index items_name_trgm_idx on items using gin (item_name gin_trgm_ops) where item_available;
+create index items_description_trgm_idx on items using gin (item_description gin_trgm_ops) where item_available;
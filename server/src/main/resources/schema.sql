@@ -9,6 +9,7 @@ create table users
 	user_id bigint not null generated by default as identity,
 	user_name varchar(255) not null,
 	user_email varchar(320) not null,
+	user_version bigint not null default 0,
 	constraint users_pk primary key (user_id),
 	constraint users_un unique (user_email)
 );
@@ -31,6 +32,8 @@ create table items
 	item_available bool not null,
 	item_owner_id bigint not null,
 	item_request_id bigint,
+	item_updated_at timestamp without time zone not null default localtimestamp,
+	item_version bigint not null default 0,
 	constraint items_pk primary key (item_id),
 	constraint items_fk_owner_id foreign key (item_owner_id) references users(user_id) on delete cascade,
 	constraint items_fk_request_id foreign key (item_request_id) references requests(request_id)
@@ -44,6 +47,7 @@ create table bookings
     booking_item_id bigint not null,
     booking_booker_id bigint not null,
     booking_status varchar(50) not null,
+    booking_version bigint not null default 0,
     constraint bookings_pk primary key (booking_id),
     constraint bookings_fk_item_id foreign key (booking_item_id) references items(item_id) on delete cascade,
     constraint bookings_fk_booker_id foreign key (booking_booker_id) references users(user_id) on delete cascade
@@ -59,4 +63,14 @@ create table comments
     constraint comments_pk primary key (comment_id),
     constraint comments_fk_item_id foreign key (comment_item_id) references items(item_id) on delete cascade,
     constraint comments_fk_author_id foreign key (comment_author_id) references users(user_id) on delete cascade
-);
\ No newline at end of file
+);
+
+create index items_owner_id_idx on items (item_owner_id, item_id);
+create index items_request_id_idx on items (item_request_id);
+create index items_updated_at_idx on items (item_updated_at);
+create index requests_requester_id_created_idx on requests (request_requester_id, request_created desc);
+create index requests_created_idx on requests (request_created desc);
+create index bookings_booker_id_start_idx on bookings (booking_booker_id, booking_start desc);
+create index bookings_booker_id_status_start_idx on bookings (booking_booker_id, booking_status, booking_start desc);
+create index bookings_item_id_status_start_idx on bookings (booking_item_id, booking_status, booking_start);
+create index comments_item_id_idx on comments (comment_item_id);
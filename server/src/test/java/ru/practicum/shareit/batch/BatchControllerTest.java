@@ -0,0 +1,104 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BatchControllerTest {
+
+    @Autowired
+    ObjectMapper mapper;
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    void should_execute_sub_requests_in_one_batch() throws Exception {
+        long userId = createUser("batch@ya.ru");
+        List<BatchRequestDto> requests = List.of(
+                new BatchRequestDto("GET", "/users/" + userId),
+                new BatchRequestDto("GET", "/items"),
+                new BatchRequestDto("GET", "/bookings/owner?state=WAITING"),
+                new BatchRequestDto("GET", "/requests"));
+        mvc.perform(post("/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(mapper.writeValueAsString(requests))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].body.email", is("batch@ya.ru")))
+                .andExpect(jsonPath("$[1].status", is(200)))
+                .andExpect(jsonPath("$[1].body", hasSize(0)))
+                .andExpect(jsonPath("$[2].status", is(200)))
+                .andExpect(jsonPath("$[3].status", is(200)));
+    }
+
+    @Test
+    void should_return_status_of_each_failed_sub_request() throws Exception {
+        long userId = createUser("failed-batch@ya.ru");
+        List<BatchRequestDto> requests = List.of(
+                new BatchRequestDto("GET", "/users/9999"),
+                new BatchRequestDto("GET", "/users/" + userId),
+                new BatchRequestDto("POST", "/users"),
+                new BatchRequestDto("GET", "/unknown"),
+                new BatchRequestDto("GET", "/bookings?state=UNKNOWN"));
+        mvc.perform(post("/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(mapper.writeValueAsString(requests))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(404)))
+                .andExpect(jsonPath("$[1].status", is(200)))
+                .andExpect(jsonPath("$[1].body.id", is(userId), Long.class))
+                .andExpect(jsonPath("$[2].status", is(405)))
+                .andExpect(jsonPath("$[3].status", is(404)))
+                .andExpect(jsonPath("$[4].status", is(400)));
+    }
+
+    @Test
+    void should_reject_empty_or_oversized_batch() throws Exception {
+        long userId = createUser("oversized-batch@ya.ru");
+        List<BatchRequestDto> oversized = Collections.nCopies(21, new BatchRequestDto("GET", "/users/" + userId));
+        for (List<BatchRequestDto> requests : List.of(List.<BatchRequestDto>of(), oversized)) {
+            mvc.perform(post("/batch")
+                            .header("X-Sharer-User-Id", userId)
+                            .content(mapper.writeValueAsString(requests))
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private long createUser(String email) throws Exception {
+        String response = mvc.perform(post("/users")
+                        .content(mapper.writeValueAsString(new UserDto(0L, "user", email)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(response, UserDto.class).getId();
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
@@ -23,6 +24,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -105,6 +107,7 @@ class BookingControllerTest {
     @Test
     void should_get_booking_by_id() throws Exception {
         when(bookingService.get(anyLong(), anyLong())).thenReturn(bookingResponseDto);
+        when(bookingService.getETag(anyLong(), anyLong())).thenReturn("\"1\"");
         mvc.perform(get("/bookings/1")
                         .header(USER_HEADER, 1)
                         .content(mapper.writeValueAsString(bookingRequestDto))
@@ -123,7 +126,8 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.item.name", is(bookingResponseDto.getItem().getName()), String.class))
                 .andExpect(jsonPath("$.item.description", is(bookingResponseDto.getItem().getDescription()), String.class))
                 .andExpect(jsonPath("$.item.available", is(bookingResponseDto.getItem().getAvailable()), Boolean.class))
-                .andExpect(jsonPath("$.item.requestId", is(bookingResponseDto.getItem().getRequestId()), Long.class));
+                .andExpect(jsonPath("$.item.requestId", is(bookingResponseDto.getItem().getRequestId()), Long.class))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
         verify(bookingService, times(1)).get(anyLong(), anyLong());
     }
 
@@ -38,10 +38,10 @@ class BookingRepositoryTest {
     void init() {
         start = LocalDateTime.now().minusHours(3);
         end = LocalDateTime.now().minusHours(2);
-        owner = new User(0L, "owner", "owner@ya.ru");
-        item = new Item(0L, "Дрель", "Обычная дрель", true, owner, null);
-        booker = new User(0L, "booker", "booker@ya.ru");
-        booking = new Booking(0L, start, end, item, booker, Status.WAITING);
+        owner = new User(0L, "owner", "owner@ya.ru", 0);
+        item = new Item(0L, "Дрель", "Обычная дрель", true, owner, null, null, 0);
+        booker = new User(0L, "booker", "booker@ya.ru", 0);
+        booking = new Booking(0L, start, end, item, booker, Status.WAITING, 0);
         userRepository.save(owner);
         userRepository.save(booker);
         itemRepository.save(item);
@@ -42,15 +42,15 @@ class BookingServiceImplTest {
         bookingService = new BookingServiceImpl(bookingRepository, entityGetter);
         start = LocalDateTime.now().plusHours(1);
         end = LocalDateTime.now().plusHours(3);
-        owner = new User(1L, "owner", "owner@ya.ru");
-        booker = new User(2L, "booker", "booker@ya.ru");
-        justUser = new User(3L, "justUser", "justUser@ys.ru");
+        owner = new User(1L, "owner", "owner@ya.ru", 0);
+        booker = new User(2L, "booker", "booker@ya.ru", 0);
+        justUser = new User(3L, "justUser", "justUser@ys.ru", 0);
         UserDto bookerDto = new UserDto(2L, "booker", "booker@ya.ru");
-        item = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        item = new Item(1L, "Дрель", "Простая дрель", true, owner, null, null, 0);
         ItemDto itemDto = new ItemDto(1L, "Дрель", "Простая дрель", true, null);
         bookingRequestDto = new BookingRequestDto(1L, start, end);
         bookingResponseDto = new BookingResponseDto(1L, start, end, Status.WAITING, bookerDto, itemDto);
-        booking = new Booking(1L, start, end, item, booker, Status.WAITING);
+        booking = new Booking(1L, start, end, item, booker, Status.WAITING, 0);
     }
 
     @Test
@@ -27,8 +27,8 @@ class BookingMapperTest {
         LocalDateTime end = LocalDateTime.now().plusHours(1);
         booking = new Booking(1L, start, end,
                 new Item(1L, "Дрель", "Простая дрель", true,
-                        new User(1L, "owner", "owner@ya.ru"), null),
-                new User(2L, "booker", "booker@ya.ru"), Status.APPROVED);
+                        new User(1L, "owner", "owner@ya.ru", 0), null, null, 0),
+                new User(2L, "booker", "booker@ya.ru", 0), Status.APPROVED, 0);
         bookingInfoDto = new BookingInfoDto(1L, 2L);
         bookingRequestDto = new BookingRequestDto(1L, start, end);
         bookingResponseDto = new BookingResponseDto(1L, start, end, Status.APPROVED,
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the checks of {@link QueryPlanTest} against Postgres, reading the plans of {@code EXPLAIN (FORMAT JSON)}. The
+ * seeded tables are analyzed and sequential scans are disabled for the test's transaction, so the planner falls back
+ * to a {@code Seq Scan} only where no index serves the query, and that fails the test. Needs the database of
+ * {@code docker-compose.yml}, or one set by {@code SPRING_DATASOURCE_URL}; run with {@code mvn test -Ppostgres}.
+ */
+@Tag("postgres")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanTest.StatementRecorder.class)
+class PostgresQueryPlanTest extends QueryPlanTest {
+    private static final String SORT_NODE = "\"Node Type\": \"Sort\"";
+
+    @Override
+    void prepareDatabase() {
+    }
+
+    @Override
+    void afterSeed(JdbcTemplate jdbc) {
+        jdbc.execute("analyze");
+        jdbc.execute("set local enable_seqscan = off");
+    }
+
+    @Override
+    String explainCommand() {
+        return "explain (format json) ";
+    }
+
+    @Override
+    String tableScan() {
+        return "\"Seq Scan\"";
+    }
+
+    /**
+     * Index names are lower case on Postgres and primary keys are named {@code <table>_pkey}. A query sorted by its
+     * index has no Sort node above the index scan.
+     */
+    @Override
+    void assertPlanMentions(String plan, String fragment) {
+        if (fragment.equals(SORTED)) {
+            assertFalse(plan.contains(SORT_NODE), "Sort not served by an index in plan:\n" + plan);
+            return;
+        }
+        String index = fragment.equals("PRIMARY_KEY") ? "_pkey\"" : fragment.toLowerCase() + "\"";
+        assertTrue(plan.contains(index), "No " + fragment + " in plan:\n" + plan);
+    }
+
+    @Override
+    void assertIndexColumns(String index, String... columns) {
+        String definition = new JdbcTemplate(dataSource).queryForObject(
+                "select indexdef from pg_indexes where indexname = ?", String.class, index.toLowerCase());
+        String expected = Arrays.stream(columns)
+                .map(column -> column.replace(" ASC", "").toLowerCase())
+                .collect(Collectors.joining(", ", "(", ")"));
+        assertTrue(definition.toLowerCase().endsWith(expected), "Columns of " + index + ": " + definition);
+    }
+}
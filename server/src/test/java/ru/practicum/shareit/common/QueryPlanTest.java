@@ -0,0 +1,351 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN on the SQL Hibernate generates for each repository query against a seeded H2 database, with the
+ * parameters the query was run with, and checks that the query goes through the index meant for it, in index order
+ * where the index also serves the sort, and that none of its statements reads a whole table. H2 indexes every foreign
+ * key column by itself and Postgres does not, so the foreign keys are dropped from this test's database first, and
+ * the planner has only the indexes schema.sql declares, as on Postgres.
+ * <p>
+ * H2 plans only approximate Postgres ones, so {@link PostgresQueryPlanTest} runs the same queries through Postgres'
+ * planner with {@code mvn test -Ppostgres}.
+ */
+@DataJpaTest
+@Import(QueryPlanTest.StatementRecorder.class)
+class QueryPlanTest {
+    static final String SORTED = "/* index sorted */";
+
+    private static final int USERS = 200;
+    private static final int ITEMS = 1000;
+    private static final int REQUESTS = 500;
+    private static final int BOOKINGS = 5000;
+    private static final int COMMENTS = 2000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    DataSource dataSource;
+
+    private final Pageable page = PageRequest.of(0, 10, Sort.by("start").descending());
+    private long firstItem;
+    private long firstRequest;
+
+    @BeforeEach
+    void seed() throws SQLException {
+        prepareDatabase();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{"user" + i, "user" + i + "@ya.ru"});
+        }
+        jdbc.batchUpdate("insert into users (user_name, user_email) values (?, ?)", users);
+        long firstUser = jdbc.queryForObject("select min(user_id) from users", Long.class);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(new Object[]{"request" + i, Timestamp.valueOf(now.minusHours(i)), firstUser + i % USERS});
+        }
+        jdbc.batchUpdate("insert into requests (request_description, request_created, request_requester_id) "
+                + "values (?, ?, ?)", requests);
+        firstRequest = jdbc.queryForObject("select min(request_id) from requests", Long.class);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"item" + i, "description" + i, i % 3 != 0, firstUser + i % USERS,
+                    i % 4 == 0 ? firstRequest + i % REQUESTS : null});
+        }
+        jdbc.batchUpdate("insert into items (item_name, item_description, item_available, item_owner_id, "
+                + "item_request_id) values (?, ?, ?, ?, ?)", items);
+        firstItem = jdbc.queryForObject("select min(item_id) from items", Long.class);
+
+        List<Object[]> bookings = new ArrayList<>();
+        Status[] statuses = Status.values();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = now.plusHours(i % 200 - 100);
+            bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2)),
+                    firstItem + i % ITEMS, firstUser + (i * 7) % USERS, statuses[i % statuses.length].name()});
+        }
+        jdbc.batchUpdate("insert into bookings (booking_start, booking_end, booking_item_id, booking_booker_id, "
+                + "booking_status) values (?, ?, ?, ?, ?)", bookings);
+
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(new Object[]{"comment" + i, firstItem + i % ITEMS, firstUser + i % USERS,
+                    Timestamp.valueOf(now.minusDays(1))});
+        }
+        jdbc.batchUpdate("insert into comments (comment_text, comment_item_id, comment_author_id, comment_created) "
+                + "values (?, ?, ?, ?)", comments);
+        afterSeed(jdbc);
+        StatementRecorder.STATEMENTS.clear();
+    }
+
+    void prepareDatabase() throws SQLException {
+        dropForeignKeys();
+    }
+
+    void afterSeed(JdbcTemplate jdbc) {
+    }
+
+    @Test
+    void should_use_indexes_for_booker_bookings() throws SQLException {
+        assertUsesIndexes(() -> bookingRepository.findByBookerId(1L, page),
+                "BOOKINGS_BOOKER_ID_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByBookerIdPastState(1L, page),
+                "BOOKINGS_BOOKER_ID_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByBookerIdFutureState(1L, page),
+                "BOOKINGS_BOOKER_ID_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByBookerIdCurrentState(1L, page),
+                "BOOKINGS_BOOKER_ID_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByBookerIdAndStatus(1L, Status.WAITING, page),
+                "BOOKINGS_BOOKER_ID_STATUS_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByIdAndBookerId(1L, 1L), "PRIMARY_KEY");
+        assertUsesIndexes(() -> bookingRepository.findByBookerIdAndItemIdAndStatusApproved(1L, 1L),
+                "BOOKINGS_BOOKER_ID_STATUS_START_IDX");
+    }
+
+    @Test
+    void should_use_indexes_for_owner_bookings() throws SQLException {
+        assertUsesIndexes(() -> bookingRepository.findByItemOwnerId(1L, page),
+                "ITEMS_OWNER_ID_IDX", "BOOKINGS_ITEM_ID_STATUS_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByItemOwnerIdPastState(1L, page),
+                "ITEMS_OWNER_ID_IDX", "BOOKINGS_ITEM_ID_STATUS_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByItemOwnerIdFutureState(1L, page),
+                "ITEMS_OWNER_ID_IDX", "BOOKINGS_ITEM_ID_STATUS_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByItemOwnerIdCurrentState(1L, page),
+                "ITEMS_OWNER_ID_IDX", "BOOKINGS_ITEM_ID_STATUS_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByItemOwnerIdAndStatus(1L, Status.WAITING, page),
+                "ITEMS_OWNER_ID_IDX", "BOOKINGS_ITEM_ID_STATUS_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByIdAndItemOwnerId(1L, 1L), "PRIMARY_KEY");
+    }
+
+    @Test
+    void should_use_indexes_for_item_bookings_and_comments() throws SQLException {
+        List<Item> items = itemRepository.findAllById(List.of(firstItem, firstItem + 1, firstItem + 2));
+        assertUsesIndexes(() -> bookingRepository.findByItemId(1L), "BOOKINGS_ITEM_ID_STATUS_START_IDX");
+        assertUsesIndexes(() -> bookingRepository.findByItemOwnerIdAndItemIn(1L, items, page),
+                "BOOKINGS_ITEM_ID_STATUS_START_IDX");
+        assertUsesIndexes(() -> commentRepository.findByItemIn(items), "COMMENTS_ITEM_ID_IDX");
+    }
+
+    @Test
+    void should_use_indexes_for_items_and_requests() throws SQLException {
+        List<ItemRequest> requests = itemRequestRepository.findAllById(
+                List.of(firstRequest, firstRequest + 1, firstRequest + 2));
+        assertUsesIndexes(() -> itemRepository.findByOwnerId(1L, PageRequest.of(0, 10, Sort.by("id"))),
+                "ITEMS_OWNER_ID_IDX");
+        assertUsesIndexes(() -> itemRepository.findByRequestId(1L), "ITEMS_REQUEST_ID_IDX");
+        assertUsesIndexes(() -> itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(1L, PageRequest.of(0, 10)),
+                "PRIMARY_KEY", SORTED);
+        assertUsesIndexes(() -> itemRepository.findByRequestIn(requests), "ITEMS_REQUEST_ID_IDX");
+        assertUsesIndexes(() -> itemRepository.findByUpdatedAtGreaterThanEqual(LocalDateTime.now().minusMinutes(1)),
+                "ITEMS_UPDATED_AT_IDX");
+        assertUsesIndexes(() -> itemRequestRepository.findByRequesterId(1L, Sort.by("created").descending()),
+                "REQUESTS_REQUESTER_ID_CREATED_IDX");
+        assertUsesIndexes(() -> itemRequestRepository.findByRequesterIdNot(1L,
+                PageRequest.of(0, 10, Sort.by("created").descending())), "REQUESTS_CREATED_IDX", SORTED);
+    }
+
+    @Test
+    void should_order_indexes_as_the_queries_sort() {
+        assertIndexColumns("BOOKINGS_BOOKER_ID_START_IDX", "BOOKING_BOOKER_ID ASC", "BOOKING_START DESC");
+        assertIndexColumns("BOOKINGS_BOOKER_ID_STATUS_START_IDX",
+                "BOOKING_BOOKER_ID ASC", "BOOKING_STATUS ASC", "BOOKING_START DESC");
+        assertIndexColumns("ITEMS_OWNER_ID_IDX", "ITEM_OWNER_ID ASC", "ITEM_ID ASC");
+        assertIndexColumns("REQUESTS_REQUESTER_ID_CREATED_IDX", "REQUEST_REQUESTER_ID ASC", "REQUEST_CREATED DESC");
+        assertIndexColumns("REQUESTS_CREATED_IDX", "REQUEST_CREATED DESC");
+    }
+
+    /**
+     * H2 only reports a sort served by an index for single-table queries, so for the joined ones this checks that the
+     * index the plan names holds the equality columns first and then the sort column in the direction it is read.
+     */
+    void assertIndexColumns(String index, String... columns) {
+        List<String> actual = new JdbcTemplate(dataSource).queryForList("select column_name || ' ' || "
+                + "ordering_specification from information_schema.index_columns where index_name = ? "
+                + "order by ordinal_position", String.class, index);
+        assertEquals(List.of(columns), actual, "Columns of " + index);
+    }
+
+    /**
+     * Drops the foreign keys, which takes the indexes H2 created for them along. Runs on a connection of its own, as
+     * H2 commits on DDL, and the database is this test's alone, as its context is not shared.
+     */
+    private void dropForeignKeys() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            jdbc.queryForList("select table_name, constraint_name from information_schema.table_constraints "
+                            + "where constraint_type = 'FOREIGN KEY'")
+                    .forEach(key -> jdbc.execute(String.format("alter table %s drop constraint %s",
+                            key.get("TABLE_NAME"), key.get("CONSTRAINT_NAME"))));
+        }
+    }
+
+    /**
+     * Runs the query and checks that the plan of its first statement, the query itself, mentions every one of
+     * {@code expected}, and that no statement it ran scans a table.
+     */
+    private void assertUsesIndexes(Runnable query, String... expected) throws SQLException {
+        entityManager.clear();
+        StatementRecorder.STATEMENTS.clear();
+        query.run();
+        List<RecordedStatement> statements = new ArrayList<>(StatementRecorder.STATEMENTS);
+        assertFalse(statements.isEmpty(), "Query did not reach the database");
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            String queryPlan = explain(connection, statements.get(0));
+            for (String fragment : expected) {
+                assertPlanMentions(queryPlan, fragment);
+            }
+            for (RecordedStatement statement : statements) {
+                String plan = explain(connection, statement);
+                assertFalse(plan.contains(tableScan()), "Full table scan in plan:\n" + plan);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    void assertPlanMentions(String plan, String fragment) {
+        assertTrue(plan.contains(fragment), "No " + fragment + " in plan:\n" + plan);
+    }
+
+    String explainCommand() {
+        return "explain ";
+    }
+
+    String tableScan() {
+        return "tableScan";
+    }
+
+    private String explain(Connection connection, RecordedStatement recorded) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(explainCommand() + recorded.sql)) {
+            for (Map.Entry<Integer, Object[]> parameter : recorded.parameters.entrySet()) {
+                invoke(statement, (Method) parameter.getValue()[0], (Object[]) parameter.getValue()[1]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryPlanTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static class RecordedStatement {
+        private final String sql;
+        private final Map<Integer, Object[]> parameters = new TreeMap<>();
+
+        RecordedStatement(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    /**
+     * Wraps the data source so every select Hibernate runs is recorded with the setter calls that bound its
+     * parameters, which EXPLAIN then replays.
+     */
+    static class StatementRecorder implements BeanPostProcessor {
+        static final List<RecordedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, (dataSourceProxy, method, args) -> {
+                Object result = invoke(bean, method, args);
+                return result instanceof Connection ? connection((Connection) result) : result;
+            });
+        }
+
+        private static Connection connection(Connection connection) {
+            return proxy(Connection.class, (connectionProxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (method.getName().equals("prepareStatement")) {
+                    return statement((PreparedStatement) result, new RecordedStatement((String) args[0]));
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement statement(PreparedStatement statement, RecordedStatement recorded) {
+            return proxy(PreparedStatement.class, (statementProxy, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer) {
+                    recorded.parameters.put((Integer) args[0], new Object[]{method, args});
+                } else if (method.getName().equals("executeQuery")
+                        && recorded.sql.trim().toLowerCase().startsWith("select")) {
+                    STATEMENTS.add(recorded);
+                }
+                return invoke(statement, method, args);
+            });
+        }
+    }
+}
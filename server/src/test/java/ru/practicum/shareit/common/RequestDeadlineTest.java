@@ -0,0 +1,99 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import ru.practicum.shareit.exception.DeadlineExceededException;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestDeadlineTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @AfterEach
+    void clear() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void should_reject_request_whose_deadline_has_passed() throws Exception {
+        mvc.perform(get("/users")
+                        .header(RequestDeadline.HEADER, 0))
+                .andExpect(status().isGatewayTimeout());
+    }
+
+    @Test
+    void should_handle_request_within_deadline() throws Exception {
+        mvc.perform(get("/users")
+                        .header(RequestDeadline.HEADER, 5000))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void should_handle_request_with_sub_second_deadline() throws Exception {
+        mvc.perform(get("/users")
+                        .header(RequestDeadline.HEADER, 900))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void should_run_in_process_call_within_deadline_and_keep_running_one() {
+        long remaining = RequestDeadline.within(1500, () -> RequestDeadline.within(60_000,
+                RequestDeadline::remainingMillis));
+        assertTrue(remaining > 1000 && remaining <= 1500, String.valueOf(remaining));
+        assertFalse(RequestDeadline.isSet());
+    }
+
+    @Test
+    void should_cap_transaction_timeout_at_remaining_budget() {
+        DeadlineTransactionManager transactionManager = new DeadlineTransactionManager();
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        RequestDeadline.start(1500);
+        assertEquals(3, transactionManager.determineTimeout(definition));
+        definition.setTimeout(1);
+        assertEquals(1, transactionManager.determineTimeout(definition));
+        RequestDeadline.start(-1);
+        assertThrows(DeadlineExceededException.class, () -> transactionManager.determineTimeout(definition));
+    }
+
+    @Test
+    void should_set_statement_timeout_to_remaining_millis_where_supported() throws Exception {
+        DeadlineTransactionManager transactionManager = new DeadlineTransactionManager();
+        transactionManager.setStatementTimeoutSupported(true);
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        RequestDeadline.start(1500);
+        assertEquals(TransactionDefinition.TIMEOUT_DEFAULT, transactionManager.determineTimeout(definition));
+
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        transactionManager.applyStatementTimeout(connection);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(statement).execute(sql.capture());
+        assertTrue(sql.getValue().startsWith("SET LOCAL statement_timeout = "), sql.getValue());
+        long timeout = Long.parseLong(sql.getValue().substring("SET LOCAL statement_timeout = ".length()));
+        assertTrue(timeout > 1000 && timeout <= 1500, sql.getValue());
+        verify(statement).close();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.common.SearchIndexProperties;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndexItemSearchTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ItemRepository itemRepository;
+    private IndexItemSearch itemSearch;
+
+    @BeforeEach
+    void init() {
+        itemRepository = mock(ItemRepository.class);
+        SearchIndexProperties properties = new SearchIndexProperties();
+        properties.setRebuildInterval(Duration.ZERO);
+        properties.setPollInterval(Duration.ZERO);
+        itemSearch = new IndexItemSearch(itemRepository, properties, meterRegistry);
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(any(Long.class), any()))
+                .thenReturn(List.of());
+        itemSearch.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemSearch.destroy();
+    }
+
+    @Test
+    void should_pick_up_items_saved_on_other_replicas() {
+        Item drill = Item.builder().id(7L).name("Дрель").description("Простая дрель").available(true)
+                .updatedAt(LocalDateTime.now()).build();
+        when(itemRepository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(drill));
+
+        itemSearch.poll();
+
+        assertEquals(List.of(7L), ids(itemSearch.search("дрель", PageRequest.of(0, 10))));
+        assertEquals(1, meterRegistry.timer("search.index.refresh.lag").count());
+
+        itemSearch.poll();
+
+        assertEquals(List.of(7L), ids(itemSearch.search("дрель", PageRequest.of(0, 10))));
+        assertEquals(1, meterRegistry.timer("search.index.refresh.lag").count());
+
+        drill.setAvailable(false);
+        drill.setUpdatedAt(LocalDateTime.now().plusSeconds(1));
+        itemSearch.poll();
+
+        assertTrue(itemSearch.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(2, meterRegistry.timer("search.index.refresh.lag").count());
+    }
+
+    @Test
+    void should_keep_item_toggled_off_and_on_during_rebuild() {
+        Item drill = drill(true);
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(any(Long.class), any()))
+                .thenAnswer(invocation -> {
+                    itemSearch.onItemSaved(drill(false));
+                    itemSearch.onItemSaved(drill);
+                    return List.of(drill);
+                });
+
+        itemSearch.rebuild();
+
+        assertEquals(List.of(7L), ids(itemSearch.search("дрель", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void should_drop_item_toggled_on_and_off_during_rebuild() {
+        Item drill = drill(true);
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(any(Long.class), any()))
+                .thenAnswer(invocation -> {
+                    itemSearch.onItemSaved(drill);
+                    itemSearch.onItemSaved(drill(false));
+                    return List.of(drill);
+                });
+
+        itemSearch.rebuild();
+
+        assertTrue(itemSearch.search("дрель", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private static Item drill(boolean available) {
+        return Item.builder().id(7L).name("Дрель").description("Простая дрель").available(available).build();
+    }
+
+    private static List<Long> ids(List<ItemSearch.Hit> hits) {
+        return hits.stream().map(hit -> hit.getItem().getId()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures search latency of the in-memory index over a generated catalog of {@value #ITEMS} items, with word, two-word
+ * and prefix queries for the first page, and checks the p99 stays under a millisecond. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class InvertedIndexBenchmarkTest {
+    private static final int ITEMS = 100_000;
+    private static final int VOCABULARY = 20_000;
+    private static final int QUERIES = 1000;
+    private static final int WARM_UP = 20_000;
+    private static final int MEASURED = 20_000;
+    private static final String[] SYLLABLES = {"дре", "ль", "от", "вер", "тка", "пи", "ла", "ключ", "на", "бор",
+            "ма", "шин", "ка", "лест", "ни", "ца", "пер", "фо", "ра", "тор", "ков", "ер", "сад", "за", "ряд"};
+
+    private final Random random = new Random(42);
+
+    @Test
+    void should_answer_searches_in_under_a_millisecond() {
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int syllables = 2 + random.nextInt(3); syllables > 0; syllables--) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words[i] = word.toString();
+        }
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= ITEMS; id++) {
+            index.upsert(new InvertedIndex.Document(id, text(words, 2 + random.nextInt(2)),
+                    text(words, 8 + random.nextInt(5)), null));
+        }
+        List<String> queries = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            String word = word(words);
+            switch (i % 3) {
+                case 0:
+                    queries.add(word);
+                    break;
+                case 1:
+                    queries.add(word + " " + word(words));
+                    break;
+                default:
+                    queries.add(word.substring(0, Math.min(word.length(), 5)));
+            }
+        }
+
+        for (int i = 0; i < WARM_UP; i++) {
+            index.search(queries.get(i % QUERIES), 0, 20);
+        }
+        long[] latencies = new long[MEASURED];
+        long matches = 0;
+        for (int i = 0; i < MEASURED; i++) {
+            long start = System.nanoTime();
+            matches += index.search(queries.get(i % QUERIES), 0, 20).size();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        long p50 = TimeUnit.NANOSECONDS.toMicros(latencies[MEASURED / 2]);
+        long p99 = TimeUnit.NANOSECONDS.toMicros(latencies[MEASURED * 99 / 100]);
+        log.info("{} items, {} terms, {} postings: p50 {} us, p99 {} us, max {} us, {} matches per page",
+                index.documentCount(), index.termCount(), index.postingCount(), p50, p99,
+                TimeUnit.NANOSECONDS.toMicros(latencies[MEASURED - 1]), matches / MEASURED);
+        assertThat(matches).isPositive();
+        assertThat(p99).isLessThan(1000);
+    }
+
+    private String text(String[] words, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(word(words)).append(' ');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Picks words with a skew, so a few are common and most are rare, as in real item texts.
+     */
+    private String word(String[] words) {
+        double skewed = Math.pow(random.nextDouble(), 3);
+        return words[(int) (skewed * words.length)];
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void init() {
+        index = new InvertedIndex();
+        index.upsert(new InvertedIndex.Document(1L, "Дрель", "Простая дрель", null));
+        index.upsert(new InvertedIndex.Document(2L, "Отвертка", "Аккумуляторная, подходит вместо дрели", 5L));
+        index.upsert(new InvertedIndex.Document(3L, "Ёлка", "Искусственная новогодняя ель", null));
+    }
+
+    @Test
+    void should_find_by_word_prefix_ignoring_case() {
+        assertEquals(List.of(1L, 2L), ids(index.search("ДРЕЛ", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("елка", 0, 10)));
+    }
+
+    @Test
+    void should_rank_name_matches_above_description_matches() {
+        List<InvertedIndex.Match> matches = index.search("дрел", 0, 10);
+
+        assertEquals(1L, matches.get(0).getDocument().getId());
+        assertTrue(matches.get(0).getScore() > matches.get(1).getScore());
+    }
+
+    @Test
+    void should_require_every_query_word() {
+        assertEquals(List.of(1L), ids(index.search("простая дрель", 0, 10)));
+        assertTrue(index.search("простая отвертка", 0, 10).isEmpty());
+        assertTrue(index.search(" ,. ", 0, 10).isEmpty());
+    }
+
+    @Test
+    void should_replace_terms_on_update() {
+        index.upsert(new InvertedIndex.Document(1L, "Перфоратор", "Мощный", null));
+
+        assertEquals(List.of(2L), ids(index.search("дрел", 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("перфоратор", 0, 10)));
+        assertEquals(3, index.documentCount());
+    }
+
+    @Test
+    void should_forget_removed_documents() {
+        index.remove(2L);
+        index.remove(42L);
+
+        assertEquals(List.of(1L), ids(index.search("дрел", 0, 10)));
+        assertTrue(index.search("отвертка", 0, 10).isEmpty());
+        assertEquals(2, index.documentCount());
+        assertEquals(index.termCount(), InvertedIndex.tokens("Дрель Простая дрель Ёлка Искусственная новогодняя ель")
+                .stream().distinct().count());
+    }
+
+    @Test
+    void should_page_matches() {
+        assertEquals(List.of(2L), ids(index.search("дрел", 1, 1)));
+        assertTrue(index.search("дрел", 2, 1).isEmpty());
+    }
+
+    @Test
+    void should_rank_pages_as_a_full_sort_would() {
+        index = new InvertedIndex();
+        for (long id = 1; id <= 50; id++) {
+            index.upsert(new InvertedIndex.Document(id, "Дрель " + "новая ".repeat((int) (id % 7)), "", null));
+        }
+        List<InvertedIndex.Match> all = index.search("дрель", 0, 50);
+        List<Long> paged = new ArrayList<>();
+        for (int from = 0; from < 50; from += 8) {
+            paged.addAll(ids(index.search("дрель", from, 8)));
+        }
+
+        assertEquals(ids(all), paged);
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getScore() >= all.get(i).getScore());
+        }
+    }
+
+    @Test
+    void should_report_truncated_prefix_expansion() {
+        AtomicInteger truncated = new AtomicInteger();
+        index = new InvertedIndex(truncated::incrementAndGet);
+        for (long id = 0; id < InvertedIndex.MAX_EXPANSIONS + 6; id++) {
+            index.upsert(new InvertedIndex.Document(id, String.format("дрель%03d", id), "", null));
+        }
+
+        assertEquals(InvertedIndex.MAX_EXPANSIONS, index.search("дрель", 0, 100).size());
+        assertEquals(1, truncated.get());
+        assertEquals(1, index.search("дрель069", 0, 100).size());
+        assertEquals(1, truncated.get());
+    }
+
+    private static List<Long> ids(List<InvertedIndex.Match> matches) {
+        return matches.stream().map(match -> match.getDocument().getId()).collect(Collectors.toList());
+    }
+}
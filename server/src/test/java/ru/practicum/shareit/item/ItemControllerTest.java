@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
@@ -23,6 +24,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -102,6 +104,7 @@ class ItemControllerTest {
     @Test
     void should_get_item_by_id() throws Exception {
         when(itemService.get(anyLong(), anyLong())).thenReturn(itemInfoDto);
+        when(itemService.getETag(anyLong(), anyLong())).thenReturn("\"1\"");
         mvc.perform(get("/items/1")
                         .header(USER_HEADER, 1)
                         .content(mapper.writeValueAsString(itemInfoDto))
@@ -117,7 +120,8 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.lastBooking.bookerId", is(itemInfoDto.getLastBooking().getBookerId()), Long.class))
                 .andExpect(jsonPath("$.nextBooking.id", is(itemInfoDto.getNextBooking().getId()), Long.class))
                 .andExpect(jsonPath("$.nextBooking.bookerId", is(itemInfoDto.getNextBooking().getBookerId()), Long.class))
-                .andExpect(jsonPath("$.comments", hasSize(0)));
+                .andExpect(jsonPath("$.comments", hasSize(0)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
         verify(itemService, times(1)).get(anyLong(), anyLong());
     }
 
@@ -6,8 +6,6 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -29,9 +27,9 @@ class ItemRepositoryTest {
 
     @BeforeEach
     void init() {
-        user = new User(0L, "user", "user@ya.ru");
-        itemOne = new Item(0L, "Дрель", "Обычная дрель", true, user, null);
-        itemTwo = new Item(0L, "Отвертка", "Крестовая отвертка", false, user, null);
+        user = new User(0L, "user", "user@ya.ru", 0);
+        itemOne = new Item(0L, "Дрель", "Обычная дрель", true, user, null, null, 0);
+        itemTwo = new Item(0L, "Отвертка", "Крестовая отвертка", false, user, null, null, 0);
         userRepository.save(user);
         itemRepository.save(itemOne);
         itemRepository.save(itemTwo);
@@ -39,8 +37,7 @@ class ItemRepositoryTest {
 
     @Test
     void search_should_return_one_item() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
-        List<Item> items = itemRepository.search("ДРЕЛЬ", pageable);
+        List<Item> items = itemRepository.searchRanked("ДРЕЛЬ", PageRequest.of(0, 10));
         assertEquals(1, items.size());
         assertEquals("Дрель", items.get(0).getName());
         assertEquals("Обычная дрель", items.get(0).getDescription());
@@ -51,11 +48,21 @@ class ItemRepositoryTest {
 
     @Test
     void search_should_return_empty_list() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
-        List<Item> items = itemRepository.search("Отвертка", pageable);
+        List<Item> items = itemRepository.searchRanked("Отвертка", PageRequest.of(0, 10));
         assertEquals(0, items.size());
     }
 
+    @Test
+    void search_ranked_should_put_name_matches_first() {
+        itemRepository.save(new Item(0L, "Набор", "Дрель и биты", true, user, null, null, 0));
+        itemRepository.save(new Item(0L, "Дрель ударная", "Мощная", true, user, null, null, 0));
+        List<Item> items = itemRepository.searchRanked("дрель", PageRequest.of(0, 10));
+        assertEquals(3, items.size());
+        assertEquals("Дрель", items.get(0).getName());
+        assertEquals("Дрель ударная", items.get(1).getName());
+        assertEquals("Набор", items.get(2).getName());
+    }
+
     @AfterEach
     void refresh() {
         itemRepository.deleteAll();
@@ -31,6 +31,7 @@ class ItemServiceImplTest {
 
     private ItemService itemService;
     private ItemRepository itemRepository;
+    private ItemSearch itemSearch;
     private BookingRepository bookingRepository;
     private CommentRepository commentRepository;
     private EntityGetter entityGetter;
@@ -51,16 +52,17 @@ class ItemServiceImplTest {
         bookingRepository = mock(BookingRepository.class);
         commentRepository = mock(CommentRepository.class);
         entityGetter = mock(EntityGetter.class);
-        itemService = new ItemServiceImpl(itemRepository, bookingRepository, commentRepository, entityGetter);
+        itemSearch = mock(ItemSearch.class);
+        itemService = new ItemServiceImpl(itemRepository, bookingRepository, commentRepository, entityGetter, itemSearch);
         LocalDateTime requestCreated = LocalDateTime.now();
         LocalDateTime commentCreated = LocalDateTime.now().minusHours(1);
-        owner = new User(1L, "owner", "owner@ya.ru");
-        item = new Item(1L, "Дрель", "Обычная дрель", true, owner, null);
-        booker = new User(2L, "booker", "booker@ya.ru");
-        User requester = new User(3L, "requester", "requester@ya.ru");
+        owner = new User(1L, "owner", "owner@ya.ru", 0);
+        item = new Item(1L, "Дрель", "Обычная дрель", true, owner, null, null, 0);
+        booker = new User(2L, "booker", "booker@ya.ru", 0);
+        User requester = new User(3L, "requester", "requester@ya.ru", 0);
         request = new ItemRequest(1L, "Нужна дрель", requestCreated, requester);
-        lastBooking = new Booking(1L, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2), item, booker, Status.APPROVED);
-        nextBooking = new Booking(2L, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3), item, booker, Status.APPROVED);
+        lastBooking = new Booking(1L, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2), item, booker, Status.APPROVED, 0);
+        nextBooking = new Booking(2L, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3), item, booker, Status.APPROVED, 0);
         BookingInfoDto lastBookingInfoDto = new BookingInfoDto(1L, 2L);
         BookingInfoDto nextBookingInfoDto = new BookingInfoDto(2L, 2L);
         comment = new Comment(1L, "Хорошая дрель", item, booker, commentCreated);
@@ -208,13 +210,14 @@ class ItemServiceImplTest {
     @Test
     void should_search_items() {
         List<ItemDto> expected = List.of(itemDto);
-        when(itemRepository.search(anyString(), any(Pageable.class))).thenReturn(List.of(item));
+        when(itemSearch.search(anyString(), any(Pageable.class))).thenReturn(List.of(new ItemSearch.Hit(item, 1.0)));
         List<ItemDto> returned = itemService.search(1, "Дрель", 0, 10);
         assertEquals(expected.get(0).getId(), returned.get(0).getId());
         assertEquals(expected.get(0).getName(), returned.get(0).getName());
         assertEquals(expected.get(0).getDescription(), returned.get(0).getDescription());
         assertEquals(expected.get(0).getAvailable(), returned.get(0).getAvailable());
         assertEquals(expected.get(0).getRequestId(), returned.get(0).getRequestId());
+        assertEquals(1.0, returned.get(0).getScore());
     }
 
     @Test
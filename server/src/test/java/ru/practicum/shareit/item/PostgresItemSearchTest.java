@@ -0,0 +1,161 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the full-text search, its generated column and its partial indexes against Postgres, with the schema the
+ * server applies for the {@code postgres} engine. Needs the database of {@code docker-compose.yml}, or one set by
+ * {@code SPRING_DATASOURCE_URL}; run with {@code mvn test -Ppostgres}.
+ */
+@Tag("postgres")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PostgresItemSearch.class)
+class PostgresItemSearchTest {
+    private static final List<String> SEARCH_INDEXES = List.of(
+            "items_search_idx", "items_name_trgm_idx", "items_description_trgm_idx");
+
+    @Autowired
+    private PostgresItemSearch itemSearch;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void init() {
+        owner = userRepository.save(new User(0L, "owner", "owner@ya.ru", 0));
+    }
+
+    @Test
+    void should_match_word_forms_and_rank_name_matches_first() {
+        Item drill = save("Дрель", "Простая дрель", true);
+        Item screwdriver = save("Аккумуляторная отвертка", "Отвертка, которая сверлит как дрель", true);
+        save("Дрель ударная", "Сдана в ремонт", false);
+
+        List<ItemSearch.Hit> hits = itemSearch.search("дрели", PageRequest.of(0, 10));
+
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), ids(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void should_match_substrings_that_are_not_words() {
+        Item drill = save("Дрель", "Простая дрель", true);
+        save("Пила", "Ножовка по дереву", true);
+
+        assertEquals(List.of(drill.getId()), ids(itemSearch.search("рел", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void should_page_ranked_matches() {
+        Item first = save("Дрель", "Дрель", true);
+        Item second = save("Дрель ударная", "Мощная", true);
+        Item third = save("Отвертка", "Не дрель", true);
+
+        List<Long> all = ids(itemSearch.search("дрель", PageRequest.of(0, 10)));
+        assertEquals(Set.of(first.getId(), second.getId(), third.getId()), new HashSet<>(all));
+        assertEquals(all.subList(1, 2), ids(itemSearch.search("дрель", PageRequest.of(1, 1))));
+    }
+
+    @Test
+    void should_keep_generated_search_column_in_step_with_the_item() {
+        Item item = save("Пила", "Ножовка", true);
+        item.setName("Рубанок");
+        itemRepository.saveAndFlush(item);
+
+        assertTrue(matches(item, "рубанок"));
+        assertTrue(matches(item, "ножовка"));
+        assertFalse(matches(item, "пила"));
+    }
+
+    @Test
+    void should_declare_search_indexes_partial_on_availability() {
+        for (String index : SEARCH_INDEXES) {
+            String definition = jdbcTemplate.queryForObject(
+                    "select indexdef from pg_indexes where indexname = ?", String.class, index);
+            assertTrue(definition.contains("USING gin"), definition);
+            assertTrue(definition.endsWith("WHERE item_available"), definition);
+        }
+    }
+
+    /**
+     * With sequential scans priced out, the search must be answerable from the partial indexes alone: the plan reads
+     * items only through them and never scans the table.
+     */
+    @Test
+    void should_plan_search_through_the_partial_indexes() throws Exception {
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            items.add(new Object[]{"Инструмент " + i, "Описание инструмента номер " + i, i % 3 != 0, owner.getId()});
+        }
+        jdbcTemplate.batchUpdate("insert into items (item_name, item_description, item_available, item_owner_id) "
+                + "values (?, ?, ?, ?)", items);
+        save("Дрель", "Простая дрель", true);
+        jdbcTemplate.execute("analyze items");
+        jdbcTemplate.execute("set local enable_seqscan = off");
+
+        String json = namedParameterJdbcTemplate.queryForObject("explain (format json) " + PostgresItemSearch.SEARCH,
+                new MapSqlParameterSource()
+                        .addValue("text", "дрель")
+                        .addValue("pattern", "%дрель%")
+                        .addValue("limit", 10)
+                        .addValue("offset", 0L),
+                String.class);
+        List<JsonNode> nodes = new ArrayList<>();
+        collect(new ObjectMapper().readTree(json).get(0).get("Plan"), nodes);
+
+        assertTrue(nodes.stream().noneMatch(node -> node.path("Node Type").asText().equals("Seq Scan")), json);
+        Set<String> indexes = nodes.stream()
+                .map(node -> node.path("Index Name").asText())
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+        assertTrue(indexes.containsAll(SEARCH_INDEXES), json);
+    }
+
+    private Item save(String name, String description, boolean available) {
+        return itemRepository.saveAndFlush(new Item(0L, name, description, available, owner, null, null, 0));
+    }
+
+    private boolean matches(Item item, String word) {
+        return jdbcTemplate.queryForObject("select item_search @@ to_tsquery('russian', ?) from items where item_id = ?",
+                Boolean.class, word, item.getId());
+    }
+
+    private static void collect(JsonNode plan, List<JsonNode> nodes) {
+        nodes.add(plan);
+        plan.path("Plans").forEach(child -> collect(child, nodes));
+    }
+
+    private static List<Long> ids(List<ItemSearch.Hit> hits) {
+        return hits.stream().map(hit -> hit.getItem().getId()).collect(Collectors.toList());
+    }
+}
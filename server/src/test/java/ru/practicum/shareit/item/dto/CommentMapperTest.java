@@ -22,8 +22,8 @@ class CommentMapperTest {
         LocalDateTime now = LocalDateTime.now();
         comment = new Comment(1L, "Хорошая дрель",
                 new Item(1L, "Дрель", "Простая дрель", true,
-                        new User(1L, "owner", "owner@ya.ru"), null),
-                new User(2L, "author", "author@ya.ru"), now);
+                        new User(1L, "owner", "owner@ya.ru", 0), null, null, 0),
+                new User(2L, "author", "author@ya.ru", 0), now);
         commentDto = new CommentDto(1L, "Хорошая дрель", "author", now);
     }
 
@@ -23,9 +23,9 @@ class ItemMapperTest {
     void init() {
         LocalDateTime now = LocalDateTime.now();
         item = new Item(1L, "Дрель", "Простая дрель", true,
-                new User(1L, "owner", "owner@ya.ru"),
+                new User(1L, "owner", "owner@ya.ru", 0),
                 new ItemRequest(1L, "нужна простая дрель", now,
-                        new User(2L, "requester", "requester@ya.ru")));
+                        new User(2L, "requester", "requester@ya.ru", 0)), null, 0);
         itemDto = new ItemDto(1L, "Дрель", "Простая дрель", true, 1L);
         itemInfoDto = new ItemInfoDto(1L, "Дрель", "Простая дрель", true,
                 new BookingInfoDto(5L, 5L),
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -22,6 +23,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -78,6 +80,7 @@ class ItemRequestControllerTest {
     @Test
     void should_get_by_request_id() throws Exception {
         when(itemRequestService.get(anyLong(), anyLong())).thenReturn(itemRequestDto);
+        when(itemRequestService.getETag(anyLong(), anyLong())).thenReturn("\"1\"");
         mvc.perform(get("/requests/1")
                         .header(USER_HEADER, 1)
                         .content(mapper.writeValueAsString(itemRequestDto))
@@ -87,7 +90,8 @@ class ItemRequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(itemRequestDto.getId()), Long.class))
                 .andExpect(jsonPath("$.description", is(itemRequestDto.getDescription()), String.class))
-                .andExpect(jsonPath("$.created", is(created.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)), String.class));
+                .andExpect(jsonPath("$.created", is(created.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)), String.class))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
         verify(itemRequestService, times(1)).get(anyLong(), anyLong());
     }
 
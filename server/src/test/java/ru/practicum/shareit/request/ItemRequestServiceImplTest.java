@@ -40,12 +40,12 @@ class ItemRequestServiceImplTest {
         itemRepository = mock(ItemRepository.class);
         entityGetter = mock(EntityGetter.class);
         itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, itemRepository, entityGetter);
-        requester = new User(1L, "requester", "requester@ya.ru");
-        anotherRequester = new User(2L, "anotherRequester", "anotherRequester@ya.ru");
+        requester = new User(1L, "requester", "requester@ya.ru", 0);
+        anotherRequester = new User(2L, "anotherRequester", "anotherRequester@ya.ru", 0);
         created = LocalDateTime.now();
         itemRequest = new ItemRequest(1L, "Нужна дрель", created, requester);
         itemDto = new ItemDto(1L, "Дрель", "Обычная дрель", true, 1L);
-        item = new Item(1L, "Дрель", "Обычная дрель", true, null, itemRequest);
+        item = new Item(1L, "Дрель", "Обычная дрель", true, null, itemRequest, null, 0);
         itemRequestDto = new ItemRequestDto(1L, "Нужна дрель", created, List.of(itemDto));
     }
 
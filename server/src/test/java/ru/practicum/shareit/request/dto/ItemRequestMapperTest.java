@@ -20,7 +20,7 @@ class ItemRequestMapperTest {
     void init() {
         LocalDateTime now = LocalDateTime.now();
         itemRequest = new ItemRequest(1L, "нужна дрель", now,
-                new User(1L, "requester", "requester@ya.ru"));
+                new User(1L, "requester", "requester@ya.ru", 0));
         itemRequestDto = new ItemRequestDto(1L, "нужна дрель", now, null);
     }
 
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -17,6 +18,8 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -79,9 +82,21 @@ class UserControllerTest {
         verify(userService, times(1)).getAll();
     }
 
+    @Test
+    void should_get_page_of_user_ids() throws Exception {
+        when(userService.getIds(5, 2)).thenReturn(List.of(6L, 9L));
+        mvc.perform(get("/users/ids?afterId=5&size=2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1]", is(9L), Long.class));
+        verify(userService, times(1)).getIds(5, 2);
+    }
+
     @Test
     void should_get_user() throws Exception {
         when(userService.get(anyLong())).thenReturn(userDto);
+        when(userService.getETag(anyLong())).thenReturn("\"1\"");
         mvc.perform(get("/users/" + userDto.getId())
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -89,7 +104,8 @@ class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(userDto.getId()), Long.class))
                 .andExpect(jsonPath("$.name", is(userDto.getName()), String.class))
-                .andExpect(jsonPath("$.email", is(userDto.getEmail()), String.class));
+                .andExpect(jsonPath("$.email", is(userDto.getEmail()), String.class))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
         verify(userService, times(1)).get(anyLong());
     }
 
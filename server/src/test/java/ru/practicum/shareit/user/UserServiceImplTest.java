@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.common.EntityGetter;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -28,7 +29,7 @@ class UserServiceImplTest {
         entityGetter = mock(EntityGetter.class);
         userService = new UserServiceImpl(userRepository, entityGetter);
         userDto = new UserDto(1L, "user", "user@ya.ru");
-        user = new User(1L, "user", "user@ya.ru");
+        user = new User(1L, "user", "user@ya.ru", 0);
     }
 
     @Test
@@ -77,6 +78,12 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void should_get_user_ids_after_given_id() {
+        when(userRepository.findIdsAfter(1L, PageRequest.of(0, 2))).thenReturn(List.of(2L, 3L));
+        assertEquals(List.of(2L, 3L), userService.getIds(1L, 2));
+    }
+
     @Test
     void should_get_user_by_id() {
         when(entityGetter.getUser(anyLong())).thenReturn(user);
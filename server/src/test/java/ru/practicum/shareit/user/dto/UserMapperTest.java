@@ -15,7 +15,7 @@ class UserMapperTest {
 
     @BeforeEach
     void init() {
-        user = new User(1L, "user", "user@user.com");
+        user = new User(1L, "user", "user@user.com", 0);
         userDto = new UserDto(1L, "user", "user@user.com");
     }
 